@@ -2,10 +2,13 @@ package cc.azuramc.azuraboard;
 
 import cc.azuramc.azuraboard.command.AzuraBoardCommand;
 import cc.azuramc.azuraboard.command.ScoreboardCommand;
+import cc.azuramc.azuraboard.listener.ExpansionListener;
+import cc.azuramc.azuraboard.listener.PermissionListener;
 import cc.azuramc.azuraboard.listener.PlayerListener;
 import cc.azuramc.azuraboard.manager.BoardManager;
 import cc.azuramc.azuraboard.manager.ConfigManager;
 import cc.azuramc.azuraboard.manager.LanguageManager;
+import cc.azuramc.azuraboard.manager.PlaceholderManager;
 import cc.azuramc.azuraboard.util.ChatColorUtil;
 import cc.azuramc.azuraboard.util.SchedulerUtil;
 import cc.azuramc.azuraboard.util.Metrics;
@@ -34,6 +37,8 @@ public final class AzuraBoard extends JavaPlugin {
     @Getter
     private LanguageManager languageManager;
     @Getter
+    private PlaceholderManager placeholderManager;
+    @Getter
     private boolean placeholderApiAvailable;
     @Getter
     private boolean viaBackwardsAvailable;
@@ -55,6 +60,7 @@ public final class AzuraBoard extends JavaPlugin {
         
         // Load other components
         loadPluginSupport();
+        initPlaceholderManager();
         intiBoardManager();
         registerListeners();
         registerCommands();
@@ -129,12 +135,27 @@ public final class AzuraBoard extends JavaPlugin {
         languageManager.loadLanguages();
     }
 
+    private void initPlaceholderManager() {
+        this.placeholderManager = new PlaceholderManager(this);
+    }
+
     private void intiBoardManager() {
         this.boardManager = new BoardManager(this);
     }
 
     private void registerListeners() {
         getServer().getPluginManager().registerEvents(new PlayerListener(this), this);
+
+        // Command list updates (PlayerCommandSendEvent, added in 1.13) pick up some permission changes early,
+        // all others are caught by the periodic re-check of the update task (settings.permission-recheck-interval)
+        if (VersionUtil.checkVersion(1, 13)) {
+            getServer().getPluginManager().registerEvents(new PermissionListener(this), this);
+        }
+
+        // Only touch PlaceholderAPI classes when the plugin is present
+        if (placeholderApiAvailable) {
+            getServer().getPluginManager().registerEvents(new ExpansionListener(this), this);
+        }
     }
 
     private void registerCommands() {
@@ -1,6 +1,10 @@
 package cc.azuramc.azuraboard.command;
 
 import cc.azuramc.azuraboard.AzuraBoard;
+import cc.azuramc.azuraboard.manager.AdaptiveInterval;
+import cc.azuramc.azuraboard.manager.UpdateShards;
+import cc.azuramc.azuraboard.render.PlaceholderCache;
+import cc.azuramc.azuraboard.util.ChatColorUtil;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -29,7 +33,7 @@ public class AzuraBoardCommand implements CommandExecutor, TabCompleter {
     /**
      * Available subcommands
      */
-    private final List<String> subCommands = Arrays.asList("reload", "toggle");
+    private final List<String> subCommands = Arrays.asList("reload", "toggle", "stats");
 
     /**
      * Constructor for AzuraBoardCommand
@@ -65,6 +69,10 @@ public class AzuraBoardCommand implements CommandExecutor, TabCompleter {
             case "toggle":
                 handleToggleCommand(sender);
                 break;
+
+            case "stats":
+                handleStatsCommand(sender);
+                break;
                 
             default:
                 sendHelp(sender);
@@ -91,6 +99,7 @@ public class AzuraBoardCommand implements CommandExecutor, TabCompleter {
         
         plugin.getConfigManager().reloadConfig();
         plugin.getLanguageManager().loadLanguages();
+        plugin.getPlaceholderManager().reload();
         plugin.getBoardManager().reloadTask();
         
         for (Player player : plugin.getServer().getOnlinePlayers()) {
@@ -134,6 +143,64 @@ public class AzuraBoardCommand implements CommandExecutor, TabCompleter {
         }
     }
 
+    /**
+     * Handle the stats command
+     *
+     * @param sender The command sender
+     */
+    private void handleStatsCommand(CommandSender sender) {
+        String langCode = (sender instanceof Player)
+            ? plugin.getLanguageManager().getPlayerLanguage((Player) sender)
+            : plugin.getLanguageManager().getDefaultLanguage();
+
+        if (!sender.hasPermission("azuraboard.command")) {
+            sender.sendMessage(plugin.getLanguageManager().getMessage("no-permission", langCode));
+            return;
+        }
+
+        UpdateShards shards = plugin.getBoardManager().getShards();
+        int[] sizes = shards.getShardSizes();
+        StringBuilder sizeList = new StringBuilder();
+        for (int i = 0; i < sizes.length; i++) {
+            if (i > 0) {
+                sizeList.append(", ");
+            }
+            sizeList.append(sizes[i]);
+        }
+
+        sender.sendMessage(plugin.getLanguageManager().getMessage("stats.header", langCode));
+        sender.sendMessage(plugin.getLanguageManager().getFormattedMessage("stats.shards", langCode,
+                "count", shards.getShardCount(), "sizes", sizeList));
+
+        sender.sendMessage(plugin.getLanguageManager().getFormattedMessage("stats.pending", langCode,
+                "count", plugin.getBoardManager().getPendingUpdateCount()));
+        sender.sendMessage(plugin.getLanguageManager().getFormattedMessage("stats.decisions", langCode,
+                "count", plugin.getConfigManager().getDecisionTable().size()));
+
+        PlaceholderCache cache = plugin.getPlaceholderManager().getCache();
+        if (cache != null) {
+            sender.sendMessage(plugin.getLanguageManager().getFormattedMessage("stats.placeholder-cache", langCode,
+                    "size", cache.size(), "hits", cache.getHits(), "misses", cache.getMisses()));
+        }
+        sender.sendMessage(plugin.getLanguageManager().getFormattedMessage("stats.color-cache", langCode,
+                "size", ChatColorUtil.getMemoSize(),
+                "hits", ChatColorUtil.getMemoHits(), "misses", ChatColorUtil.getMemoMisses()));
+
+        AdaptiveInterval adaptive = plugin.getBoardManager().getAdaptiveInterval();
+        if (adaptive != null) {
+            sender.sendMessage(plugin.getLanguageManager().getFormattedMessage("stats.adaptive", langCode,
+                    "multiplier", adaptive.getMultiplier(),
+                    "tps", String.format("%.2f", adaptive.getTps()),
+                    "cost", String.format("%.3f", adaptive.getCostMillis())));
+        }
+
+        if (sender instanceof Player) {
+            int phase = shards.getPhase(((Player) sender).getUniqueId());
+            sender.sendMessage(plugin.getLanguageManager().getFormattedMessage("stats.phase", langCode,
+                    "phase", phase >= 0 ? String.valueOf(phase) : "-"));
+        }
+    }
+
     /**
      * Send help message to a sender
      * 
@@ -151,6 +218,7 @@ public class AzuraBoardCommand implements CommandExecutor, TabCompleter {
         sender.sendMessage("");
         sender.sendMessage(plugin.getLanguageManager().getMessage("help.reload", langCode));
         sender.sendMessage(plugin.getLanguageManager().getMessage("help.toggle", langCode));
+        sender.sendMessage(plugin.getLanguageManager().getMessage("help.stats", langCode));
         sender.sendMessage("");
     }
 
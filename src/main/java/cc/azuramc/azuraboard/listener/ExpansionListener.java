@@ -0,0 +1,70 @@
+package cc.azuramc.azuraboard.listener;
+
+import cc.azuramc.azuraboard.AzuraBoard;
+import cc.azuramc.azuraboard.render.ExpansionDispatcher;
+import me.clip.placeholderapi.events.ExpansionRegisterEvent;
+import me.clip.placeholderapi.events.ExpansionUnregisterEvent;
+import me.clip.placeholderapi.events.ExpansionsLoadedEvent;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+
+/**
+ * PlaceholderAPI Expansion Listener for AzuraBoard
+ * Drops direct dispatch bindings whenever the registered expansions change
+ * Only registered when PlaceholderAPI is available
+ *
+ * @author an5w1r@163.com
+ */
+public class ExpansionListener implements Listener {
+
+    /**
+     * Plugin instance
+     */
+    private final AzuraBoard plugin;
+
+    /**
+     * Constructor for ExpansionListener
+     *
+     * @param plugin The plugin instance
+     */
+    public ExpansionListener(AzuraBoard plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Handles expansion register event
+     *
+     * @param event The expansion register event
+     */
+    @EventHandler
+    public void onExpansionRegister(ExpansionRegisterEvent event) {
+        invalidateBindings();
+    }
+
+    /**
+     * Handles expansion unregister event
+     *
+     * @param event The expansion unregister event
+     */
+    @EventHandler
+    public void onExpansionUnregister(ExpansionUnregisterEvent event) {
+        invalidateBindings();
+    }
+
+    /**
+     * Handles expansions loaded event, fired after PlaceholderAPI (re)loaded all expansions
+     *
+     * @param event The expansions loaded event
+     */
+    @EventHandler
+    public void onExpansionsLoaded(ExpansionsLoadedEvent event) {
+        invalidateBindings();
+    }
+
+    private void invalidateBindings() {
+        ExpansionDispatcher dispatcher = plugin.getPlaceholderManager().getDispatcher();
+        if (dispatcher != null) {
+            dispatcher.invalidateBindings();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package cc.azuramc.azuraboard.listener;
+
+import cc.azuramc.azuraboard.AzuraBoard;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerCommandSendEvent;
+
+/**
+ * Permission Listener for AzuraBoard
+ * The server sends the command list on join and whenever a plugin calls Player#updateCommands,
+ * which some permission plugins do after a rank change (e.g. LuckPerms with update-client-command-list).
+ * This is only a faster path: permission changes without the event are picked up by the periodic re-check
+ * of the update task. Only registered on 1.13+, where the event exists
+ *
+ * @author an5w1r@163.com
+ */
+public class PermissionListener implements Listener {
+
+    /**
+     * Plugin instance
+     */
+    private final AzuraBoard plugin;
+
+    /**
+     * Constructor for PermissionListener
+     *
+     * @param plugin The plugin instance
+     */
+    public PermissionListener(AzuraBoard plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Handles player command send event
+     * Refreshes the player's board permissions
+     *
+     * @param event The player command send event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerCommandSend(PlayerCommandSendEvent event) {
+        plugin.getConfigManager().refreshPermissions(event.getPlayer());
+    }
+}
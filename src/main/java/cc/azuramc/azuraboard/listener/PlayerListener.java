@@ -41,6 +41,9 @@ public class PlayerListener implements Listener {
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
 
+        // Check the player's board permissions once
+        plugin.getConfigManager().refreshPermissions(player);
+
         SchedulerUtil.runTaskLater(plugin, () -> plugin.getBoardManager().createBoard(player), 5L);
     }
 
@@ -56,6 +59,10 @@ public class PlayerListener implements Listener {
         
         // Remove the player's scoreboard
         plugin.getBoardManager().removeBoard(player);
+
+        // Drop the player's cached placeholder values, permissions and scoreboard configuration
+        plugin.getPlaceholderManager().invalidate(player);
+        plugin.getConfigManager().forgetPlayer(player);
     }
     
     /**
@@ -67,6 +74,9 @@ public class PlayerListener implements Listener {
     @EventHandler
     public void onPlayerChangeWorld(PlayerChangedWorldEvent event) {
         Player player = event.getPlayer();
+
+        // The scoreboard configuration and, with per-world permissions, the board permissions may depend on the world
+        plugin.getConfigManager().refreshPermissions(player);
         
         // Only update if world-specific configuration is enabled
         if (plugin.getConfigManager().isEnableWorldSpecific()) {
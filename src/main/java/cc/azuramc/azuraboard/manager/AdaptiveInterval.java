@@ -0,0 +1,118 @@
+package cc.azuramc.azuraboard.manager;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Adaptive stretching of the scoreboard update interval
+ * Measures the server's tick time from the gaps between runs of the update task, and the time the task itself takes.
+ * The interval is multiplied while the server is behind or the updates are too expensive,
+ * and shrunk back one step at a time once the server is healthy again.
+ * On Folia boards are updated on region threads, which report their cost through {@link #addCost(long)},
+ * while the tick time is still measured on the global region
+ *
+ * @author an5w1r@163.com
+ */
+public class AdaptiveInterval {
+
+    /** Ticks between two evaluations of the multiplier */
+    private static final int EVALUATION_TICKS = 20;
+
+    /** Weight of a new sample in the moving averages */
+    private static final double SMOOTHING = 0.2;
+
+    private final int maxMultiplier;
+    private final double stretchBelowTps;
+    private final double restoreAboveTps;
+    private final double maxCost;
+
+    /** Factor the update interval is currently stretched by, read by the board tasks on the region threads */
+    @Getter private volatile int multiplier = 1;
+
+    /** Average milliseconds per server tick */
+    @Getter private volatile double tickMillis = 50;
+
+    /** Average milliseconds per server tick spent updating scoreboards */
+    @Getter private volatile double costMillis;
+
+    /** Nanoseconds spent updating boards outside the update task since the last run, Folia only */
+    private final AtomicLong pendingCost = new AtomicLong();
+
+    private long lastRun;
+    private int ticksSinceEvaluation;
+
+    /**
+     * Constructor for AdaptiveInterval
+     *
+     * @param maxMultiplier The largest factor the interval may be stretched by
+     * @param stretchBelowTps The TPS below which the interval is stretched
+     * @param restoreAboveTps The TPS from which the interval is shrunk back
+     * @param maxCost The milliseconds per tick the updates may take before the interval is stretched, 0 for no limit
+     */
+    public AdaptiveInterval(int maxMultiplier, double stretchBelowTps, double restoreAboveTps, double maxCost) {
+        this.maxMultiplier = Math.max(1, maxMultiplier);
+        this.stretchBelowTps = stretchBelowTps;
+        this.restoreAboveTps = Math.max(stretchBelowTps, restoreAboveTps);
+        this.maxCost = maxCost;
+    }
+
+    /**
+     * Add time spent updating a board outside the update task
+     * Called from any thread, the time is counted at the next run of the update task
+     *
+     * @param costNanos The time the update took
+     */
+    public void addCost(long costNanos) {
+        pendingCost.addAndGet(costNanos);
+    }
+
+    /**
+     * Record a run of the update task
+     *
+     * @param startNanos The time the run started at
+     * @param costNanos The time the run took
+     * @param ticks The ticks since the previous run
+     */
+    public void record(long startNanos, long costNanos, int ticks) {
+        if (lastRun != 0) {
+            double gap = (startNanos - lastRun) / 1_000_000.0 / ticks;
+            tickMillis += SMOOTHING * (gap - tickMillis);
+        }
+        lastRun = startNanos;
+        costNanos += pendingCost.getAndSet(0);
+        costMillis += SMOOTHING * (costNanos / 1_000_000.0 / ticks - costMillis);
+
+        ticksSinceEvaluation += ticks;
+        if (ticksSinceEvaluation >= EVALUATION_TICKS) {
+            ticksSinceEvaluation = 0;
+            evaluate();
+        }
+    }
+
+    /**
+     * Get the measured server TPS
+     *
+     * @return The average ticks per second, at most 20
+     */
+    public double getTps() {
+        return Math.min(20.0, 1000.0 / tickMillis);
+    }
+
+    /**
+     * Stretch or shrink the interval by one step
+     * Between the two TPS thresholds the multiplier is kept, so it does not flip on every evaluation.
+     * The measured cost drops as the interval grows, so it has to fall below half of the limit before shrinking
+     */
+    private void evaluate() {
+        double tps = getTps();
+        boolean expensive = maxCost > 0 && costMillis > maxCost;
+        boolean cheap = maxCost <= 0 || costMillis <= maxCost / 2;
+
+        if ((tps < stretchBelowTps || expensive) && multiplier < maxMultiplier) {
+            multiplier++;
+        } else if (tps >= restoreAboveTps && cheap && multiplier > 1) {
+            multiplier--;
+        }
+    }
+}
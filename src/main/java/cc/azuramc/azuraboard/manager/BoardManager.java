@@ -1,15 +1,26 @@
 package cc.azuramc.azuraboard.manager;
 
 import cc.azuramc.azuraboard.AzuraBoard;
-import cc.azuramc.azuraboard.util.ChatColorUtil;
+import cc.azuramc.azuraboard.render.BoardSnapshot;
+import cc.azuramc.azuraboard.render.PlayerSnapshot;
+import cc.azuramc.azuraboard.render.RenderVariant;
+import cc.azuramc.azuraboard.scheduler.TaskHandle;
 import cc.azuramc.azuraboard.util.SchedulerUtil;
-import cc.azuramc.azuraboard.util.VersionUtil;
 import fr.mrmicky.fastboard.FastBoard;
+import lombok.Getter;
 import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Board Manager for AzuraBoard
@@ -19,16 +30,68 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class BoardManager {
 
+    /** Length of a server tick in nanoseconds */
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
     private final AzuraBoard plugin;
 
     /** Map of player UUID to FastBoard */
     private final Map<UUID, FastBoard> boards;
 
+    /** Map of player UUID to the last rendered state of their board */
+    private final Map<UUID, BoardSnapshot> snapshots;
+
     /** Set of player UUIDs with disabled scoreboards */
     private final Set<UUID> toggledOff;
 
-    /** Task for updating scoreboards (BukkitTask or Folia ScheduledTask) */
-    private Object updateTask;
+    /** Task for updating scoreboards */
+    private TaskHandle updateTask;
+
+    /** Period of the update task in ticks */
+    private int taskPeriod;
+
+    /** Number of times the update task ran since it started */
+    private volatile long taskRuns;
+
+    /** Time in nanoseconds the next run of the update task is due */
+    private volatile long nextRunNanos;
+
+    /** Assignment of players to the shards updated on each run of the task */
+    @Getter private volatile UpdateShards shards = new UpdateShards(1);
+
+    /** Boards waiting for their update, oldest first, only accessed by the update task */
+    private final Deque<UUID> pendingUpdates = new ArrayDeque<>();
+    private final Set<UUID> queuedUpdates = new HashSet<>();
+
+    /** Time in nanoseconds the update task may spend per run, 0 for no limit */
+    private long tickBudget;
+
+    /** Adaptive stretching of the update interval, null if disabled */
+    @Getter private volatile AdaptiveInterval adaptiveInterval;
+
+    /** Runs skipped since the last update while the interval is stretched */
+    private int skippedRuns;
+
+    /** Ticks elapsed since the update task started, advanced by the task period */
+    private volatile long currentTick;
+
+    /** Worker pool for the asynchronous render pipeline, null if disabled */
+    private volatile ExecutorService renderExecutor;
+
+    /** Map of player UUID to the board's update task on the player's entity scheduler, Folia only */
+    private final Map<UUID, TaskHandle> boardTasks = new ConcurrentHashMap<>();
+
+    /** Map of player UUID to the region the player was in at the last update, Folia only */
+    private final Map<UUID, RegionKey> boardRegions = new ConcurrentHashMap<>();
+
+    /** Whether boards are updated in one batch task per region instead of one task per board, Folia only */
+    private volatile boolean regionBatching;
+
+    /** Ticks between permission re-checks of a board, 0 if disabled */
+    private volatile long permissionRecheckTicks;
+
+    /** Map of player UUID to the tick the player's board permissions were last checked by the update */
+    private final Map<UUID, Long> permissionChecks = new ConcurrentHashMap<>();
 
     /**
      * Constructor for BoardManager
@@ -38,6 +101,7 @@ public class BoardManager {
     public BoardManager(AzuraBoard plugin) {
         this.plugin = plugin;
         this.boards = new ConcurrentHashMap<>();
+        this.snapshots = new ConcurrentHashMap<>();
         this.toggledOff = new HashSet<>();
 
         // Start scoreboard update task
@@ -54,29 +118,72 @@ public class BoardManager {
             return;
         }
 
+        // Lines are only limited to the legacy length for clients below 1.13
+        RenderVariant variant = RenderVariant.of(player, plugin.getConfigManager().isLegacyDownsampling());
         FastBoard board = new FastBoard(player) {
             @Override
             public boolean hasLinesMaxLength() {
-                // Return false if RGB support is enabled and ViaBackwards compatibility is needed
-                // This allows sending longer lines to support RGB colors
-                if (plugin.isViaBackwardsAvailable()) {
-                    return false;
-                }
-
-                // Return false if RGB support is enabled (1.16+)
-                // Return true if RGB support is disabled (force limit line length)
-                return !VersionUtil.isSupportsRgb;
+                return variant.hasLinesMaxLength();
             }
         };
 
-        try {
-            board.updateTitle(ChatColorUtil.parse(player, plugin.getConfigManager().getTitle(player)));
-        } catch (IllegalArgumentException e) {
-            Bukkit.getLogger().warning(e.getMessage() + " plz fix it in config.yml");
+        boards.put(player.getUniqueId(), board);
+        snapshots.put(player.getUniqueId(), new BoardSnapshot(variant));
+        int phase = shards.assign(player.getUniqueId());
+
+        if (plugin.isFoliaServer()) {
+            // The first update happens on the region owning the player, through the same pipeline as the board task,
+            // so it cannot touch the snapshot while the render pool works on it
+            SchedulerUtil.runEntityTask(plugin, player, () -> updateTrackedBoard(player));
+
+            // Without region batching the board is updated by its own task
+            if (!regionBatching) {
+                scheduleBoardTask(player, phase);
+            }
+        } else {
+            updateBoard(player);
         }
+    }
 
-        boards.put(player.getUniqueId(), board);
-        updateBoard(player);
+    /**
+     * Start the repeating update task of a board on the player's entity scheduler
+     * The task starts on the next tick of the player's shard phase, so boards stay spread across the ticks of the interval
+     *
+     * @param player The player
+     * @param phase The player's shard phase
+     */
+    private void scheduleBoardTask(Player player, int phase) {
+        int period = taskPeriod * shards.getShardCount();
+        int[] skippedRuns = new int[1];
+
+        TaskHandle task = SchedulerUtil.runEntityTaskTimer(plugin, player, () -> {
+            // While the adaptive interval is stretched, runs are skipped
+            AdaptiveInterval adaptive = adaptiveInterval;
+            if (adaptive != null && ++skippedRuns[0] < adaptive.getMultiplier()) {
+                return;
+            }
+            skippedRuns[0] = 0;
+            processBoard(player);
+        }, phaseDelay(phase), period);
+
+        if (task != null) {
+            TaskHandle previous = boardTasks.put(player.getUniqueId(), task);
+            if (previous != null) {
+                SchedulerUtil.cancelTask(previous);
+            }
+        }
+    }
+
+    /**
+     * Get the delay until the update task next reaches a shard phase
+     *
+     * @param phase The shard phase
+     * @return The delay in ticks, at least 1
+     */
+    private long phaseDelay(int phase) {
+        long ticksToNextRun = Math.max(0L, (nextRunNanos - System.nanoTime() + TICK_NANOS - 1) / TICK_NANOS);
+        long runsAhead = Math.floorMod(phase - taskRuns, (long) shards.getShardCount());
+        return Math.max(1L, ticksToNextRun + runsAhead * taskPeriod);
     }
 
     /**
@@ -87,6 +194,15 @@ public class BoardManager {
     public void removeBoard(Player player) {
         UUID uuid = player.getUniqueId();
         FastBoard board = boards.remove(uuid);
+        snapshots.remove(uuid);
+        shards.release(uuid);
+
+        TaskHandle task = boardTasks.remove(uuid);
+        if (task != null) {
+            SchedulerUtil.cancelTask(task);
+        }
+        boardRegions.remove(uuid);
+        permissionChecks.remove(uuid);
 
         if (board != null) {
             board.delete();
@@ -101,6 +217,7 @@ public class BoardManager {
      */
     public boolean toggleBoard(Player player) {
         UUID uuid = player.getUniqueId();
+        plugin.getConfigManager().invalidateScoreboardConfig(player);
 
         if (toggledOff.contains(uuid)) {
             toggledOff.remove(uuid);
@@ -117,51 +234,338 @@ public class BoardManager {
 
     /**
      * Update a player's scoreboard
+     * Only the title and lines that differ from the last rendered snapshot are sent
      *
      * @param player The player to update the scoreboard for
      */
     public void updateBoard(Player player) {
         UUID uuid = player.getUniqueId();
         FastBoard board = boards.get(uuid);
+        BoardSnapshot snapshot = snapshots.get(uuid);
 
-        if (board == null) {
+        if (board == null || snapshot == null) {
             return;
         }
 
-        // Update title in case player's permissions or world changed
-        try {
-            board.updateTitle(ChatColorUtil.parse(player, plugin.getConfigManager().getTitle(player)));
-        } catch (IllegalArgumentException e) {
-            Bukkit.getLogger().warning(e.getMessage() + " plz fix it in config.yml");
+        // Resolve the configuration once, in case player's permissions or world changed
+        ConfigManager.ScoreboardConfig config = plugin.getConfigManager().getScoreboardConfig(player);
+        boolean rebound = snapshot.bind(config);
+
+        // Resolve every distinct placeholder of the board whose refresh interval elapsed, once
+        snapshot.resolve(player, capture(player, config), currentTick, BoardSnapshot.Phase.ALL);
+
+        pushBoard(board, snapshot, config, rebound);
+    }
+
+    /**
+     * Update a player's scoreboard through the asynchronous pipeline
+     * Placeholders that are not async-safe are resolved and the player state is captured on the calling thread,
+     * async-safe and built-in placeholders, rendering and sending happen on the render pool
+     *
+     * @param player The player to update the scoreboard for
+     */
+    private void updateBoardAsync(Player player) {
+        UUID uuid = player.getUniqueId();
+        FastBoard board = boards.get(uuid);
+        BoardSnapshot snapshot = snapshots.get(uuid);
+        ExecutorService executor = renderExecutor;
+
+        if (board == null || snapshot == null) {
+            return;
         }
 
-        // Update lines
-        List<String> lines = new ArrayList<>();
-        for (String line : plugin.getConfigManager().getLines(player)) {
-            line = ChatColorUtil.parse(player, line);
-            lines.add(line);
+        // The previous cycle of this board is still being rendered, catch up on the next cycle
+        if (executor == null || !snapshot.tryAcquire()) {
+            return;
         }
 
         try {
-            board.updateLines(lines.toArray(new String[0]));
-        } catch (IllegalArgumentException e) {
-            Bukkit.getLogger().warning(e.getMessage() + " plz fix it in config.yml");
+            ConfigManager.ScoreboardConfig config = plugin.getConfigManager().getScoreboardConfig(player);
+            boolean rebound = snapshot.bind(config);
+            long tick = currentTick;
+
+            // Snapshot stage: everything read from the player happens here, on the thread owning it
+            PlayerSnapshot playerSnapshot = capture(player, config);
+            snapshot.resolve(player, playerSnapshot, tick, BoardSnapshot.Phase.MAIN);
+
+            executor.execute(() -> {
+                try {
+                    snapshot.resolve(player, playerSnapshot, tick, BoardSnapshot.Phase.ASYNC);
+                    pushBoard(board, snapshot, config, rebound);
+                } catch (IllegalStateException ignored) {
+                    // The board was deleted while it was being rendered
+                } finally {
+                    snapshot.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            snapshot.release();
+        }
+    }
+
+    /**
+     * Capture the player state the built-in placeholders of a board read
+     * Must be called on the thread owning the player
+     *
+     * @param player The player
+     * @param config The scoreboard configuration
+     * @return The player snapshot, or null if the board has no built-in placeholders
+     */
+    private PlayerSnapshot capture(Player player, ConfigManager.ScoreboardConfig config) {
+        return config.isUsingPlayerSnapshot() ? PlayerSnapshot.capture(player) : null;
+    }
+
+    /**
+     * Render the changed title and lines of a resolved snapshot and send them
+     *
+     * @param board The player's board
+     * @param snapshot The player's snapshot, already bound and resolved
+     * @param config The configuration the snapshot is bound to
+     * @param rebound true if the configuration changed and the whole board has to be sent
+     */
+    private void pushBoard(FastBoard board, BoardSnapshot snapshot, ConfigManager.ScoreboardConfig config, boolean rebound) {
+        RenderVariant variant = snapshot.getVariant();
+
+        // Update title
+        String title = snapshot.renderTitle();
+        if (title != null) {
+            try {
+                board.updateTitle(variant.title(title));
+            } catch (IllegalArgumentException e) {
+                snapshot.invalidateTitle();
+                Bukkit.getLogger().warning(e.getMessage() + " plz fix it in config.yml");
+            }
+        }
+
+        // A new configuration is sent in one go
+        if (rebound) {
+            for (int i = 0; i < config.getLineTemplates().size(); i++) {
+                snapshot.renderLine(i);
+            }
+
+            try {
+                board.updateLines(variant.lines(snapshot.getLines()));
+            } catch (IllegalArgumentException e) {
+                snapshot.bind(null);
+                Bukkit.getLogger().warning(e.getMessage() + " plz fix it in config.yml");
+            }
+            return;
         }
+
+        // Otherwise only dynamic lines using a changed value are rendered,
+        // and only the ones that changed are pushed
+        for (int index : config.getDynamicLines()) {
+            String line = snapshot.renderLine(index);
+            if (line == null) {
+                continue;
+            }
+
+            try {
+                board.updateLine(index, variant.line(line));
+            } catch (IllegalArgumentException e) {
+                snapshot.invalidateLine(index);
+                Bukkit.getLogger().warning(e.getMessage() + " plz fix it in config.yml");
+            }
+        }
+    }
+
+    /**
+     * Run the update task
+     * With an adaptive interval, runs are skipped while the interval is stretched
+     */
+    private void runTask() {
+        long start = System.nanoTime();
+        nextRunNanos = start + taskPeriod * TICK_NANOS;
+        currentTick += taskPeriod;
+
+        AdaptiveInterval adaptive = adaptiveInterval;
+        if (adaptive == null) {
+            updateAllBoards();
+            return;
+        }
+
+        if (++skippedRuns >= adaptive.getMultiplier()) {
+            skippedRuns = 0;
+            updateAllBoards();
+        }
+        adaptive.record(start, System.nanoTime() - start, taskPeriod);
     }
 
     /**
-     * Update all scoreboards for online players
+     * Update the scoreboards of the shard whose phase is due
+     * Each board only resolves the placeholders whose refresh interval elapsed
      */
     public void updateAllBoards() {
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            if (plugin.isFoliaServer()) {
-                if (player.isOnline()) {
-                    SchedulerUtil.runTask(plugin, () -> updateBoard(player));
-                }
-            } else {
-                updateBoard(player);
+        UpdateShards shards = this.shards;
+        int phase = (int) (taskRuns++ % shards.getShardCount());
+
+        // Server-wide placeholders are evaluated once per round over all shards and shared by every board
+        if (phase == 0) {
+            plugin.getPlaceholderManager().beginCycle();
+        }
+
+        // On Folia boards are updated on the region owning the player,
+        // either in one batch per region or by their own task
+        if (plugin.isFoliaServer()) {
+            if (regionBatching) {
+                updateRegionBatches(shards.getShard(phase));
+            }
+            return;
+        }
+
+        // Boards still waiting from earlier runs keep their place at the head of the queue
+        for (UUID uuid : shards.getShard(phase)) {
+            if (queuedUpdates.add(uuid)) {
+                pendingUpdates.addLast(uuid);
             }
         }
+
+        processPendingUpdates();
+    }
+
+    /**
+     * Update queued boards, oldest first, until the tick budget is spent
+     * Boards left in the queue are carried over to the next run of the task
+     */
+    private void processPendingUpdates() {
+        long start = System.nanoTime();
+        UUID uuid;
+
+        while ((uuid = pendingUpdates.pollFirst()) != null) {
+            queuedUpdates.remove(uuid);
+
+            Player player = Bukkit.getPlayer(uuid);
+            if (player != null) {
+                processBoard(player);
+            }
+
+            // At least one board is updated per run, so the queue always makes progress
+            if (tickBudget > 0 && System.nanoTime() - start >= tickBudget) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Update boards in one task per region, Folia only
+     * Players are grouped by the region they were in at their last update.
+     * Players that left the region since then, or whose region is not known yet,
+     * are updated through their entity scheduler instead
+     *
+     * @param players The players to update
+     */
+    private void updateRegionBatches(Set<UUID> players) {
+        Map<RegionKey, List<Player>> batches = new HashMap<>();
+
+        for (UUID uuid : players) {
+            Player player = Bukkit.getPlayer(uuid);
+            if (player == null) {
+                continue;
+            }
+
+            RegionKey region = boardRegions.get(uuid);
+            if (region == null) {
+                SchedulerUtil.runEntityTask(plugin, player, () -> updateTrackedBoard(player));
+                continue;
+            }
+
+            batches.computeIfAbsent(region, key -> new ArrayList<>()).add(player);
+        }
+
+        for (Map.Entry<RegionKey, List<Player>> batch : batches.entrySet()) {
+            RegionKey region = batch.getKey();
+            List<Player> batchPlayers = batch.getValue();
+
+            SchedulerUtil.runRegionTask(plugin, region.world, region.chunkX(), region.chunkZ(), () -> {
+                for (Player player : batchPlayers) {
+                    if (SchedulerUtil.isOwnedByCurrentRegion(player)) {
+                        updateTrackedBoard(player);
+                    } else {
+                        SchedulerUtil.runEntityTask(plugin, player, () -> updateTrackedBoard(player));
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Remember the player's region and update its board
+     * Must be called on the thread owning the player
+     *
+     * @param player The player to update the scoreboard for
+     */
+    private void updateTrackedBoard(Player player) {
+        trackRegion(player);
+        processBoard(player);
+    }
+
+    /**
+     * Remember the region a player is in, used to batch updates by region
+     * Must be called on the thread owning the player
+     *
+     * @param player The player
+     */
+    private void trackRegion(Player player) {
+        if (regionBatching && boards.containsKey(player.getUniqueId())) {
+            Location location = player.getLocation();
+            boardRegions.put(player.getUniqueId(), new RegionKey(location.getWorld(),
+                    location.getBlockX() >> RegionKey.SHIFT, location.getBlockZ() >> RegionKey.SHIFT));
+        }
+    }
+
+    /**
+     * Get the number of boards waiting for their update
+     *
+     * @return The number of queued boards
+     */
+    public int getPendingUpdateCount() {
+        return pendingUpdates.size();
+    }
+
+    /**
+     * Update a player's scoreboard through the pipeline enabled in config
+     *
+     * @param player The player to update the scoreboard for
+     */
+    private void processBoard(Player player) {
+        // On Folia the update task does not run the updates itself, so their cost is reported separately
+        AdaptiveInterval adaptive = plugin.isFoliaServer() ? adaptiveInterval : null;
+        long start = adaptive != null ? System.nanoTime() : 0;
+
+        recheckPermissions(player);
+
+        if (renderExecutor != null) {
+            updateBoardAsync(player);
+        } else {
+            updateBoard(player);
+        }
+
+        if (adaptive != null) {
+            adaptive.addCost(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Check a player's board permissions again once the re-check interval elapsed
+     * Most permission changes fire no event, PlayerCommandSendEvent only catches some of them earlier
+     *
+     * @param player The player
+     */
+    private void recheckPermissions(Player player) {
+        long interval = permissionRecheckTicks;
+        if (interval <= 0) {
+            return;
+        }
+
+        long tick = currentTick;
+        Long checkedAt = permissionChecks.get(player.getUniqueId());
+        if (checkedAt == null) {
+            // Permissions were checked on join
+            permissionChecks.put(player.getUniqueId(), tick);
+        } else if (tick - checkedAt >= interval) {
+            permissionChecks.put(player.getUniqueId(), tick);
+            plugin.getConfigManager().recheckPermissions(player);
+        }
     }
 
     /**
@@ -174,31 +578,86 @@ public class BoardManager {
         }
 
         boards.clear();
+        snapshots.clear();
 
-        if (updateTask != null) {
-            SchedulerUtil.cancelTask(updateTask);
-            updateTask = null;
+        for (TaskHandle task : boardTasks.values()) {
+            SchedulerUtil.cancelTask(task);
         }
+        boardTasks.clear();
+        boardRegions.clear();
+        permissionChecks.clear();
+
+        stopTask();
+        pendingUpdates.clear();
+        queuedUpdates.clear();
     }
 
     /**
      * Start the scoreboard update task
+     * Every player is updated at the shortest refresh interval of any placeholder.
+     * With staggered updates the task runs every tick and updates one shard of players per tick
      */
     private void startTask() {
-        int interval = plugin.getConfigManager().getUpdateInterval();
+        ConfigManager configManager = plugin.getConfigManager();
+        int basePeriod = configManager.getPlaceholderPolicy().getBasePeriod();
+        int shardCount = configManager.isStaggeredUpdates() ? basePeriod : 1;
+        taskPeriod = basePeriod / shardCount;
+        taskRuns = 0;
+
+        tickBudget = (long) (configManager.getTickBudget() * TimeUnit.MILLISECONDS.toNanos(1));
+        regionBatching = plugin.isFoliaServer() && configManager.isRegionBatchedUpdates();
+        permissionRecheckTicks = configManager.getPermissionRecheckInterval() * 20L;
+
+        adaptiveInterval = configManager.isAdaptiveInterval()
+                ? new AdaptiveInterval(configManager.getAdaptiveMaxMultiplier(), configManager.getAdaptiveStretchBelowTps(),
+                        configManager.getAdaptiveRestoreAboveTps(), configManager.getAdaptiveMaxCost())
+                : null;
+        skippedRuns = 0;
+
+        UpdateShards newShards = new UpdateShards(shardCount);
+        for (UUID uuid : boards.keySet()) {
+            newShards.assign(uuid);
+        }
+        shards = newShards;
+
+        if (configManager.isAsyncRendering()) {
+            renderExecutor = Executors.newFixedThreadPool(configManager.getAsyncRenderThreads(), new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
 
-        updateTask = SchedulerUtil.runTaskTimer(plugin, this::updateAllBoards, 20L, interval);
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "AzuraBoard Render Thread #" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+
+        nextRunNanos = System.nanoTime() + 20L * TICK_NANOS;
+        updateTask = SchedulerUtil.runTaskTimer(plugin, this::runTask, 20L, taskPeriod);
     }
 
     /**
-     * Reload the scoreboard update task
-     * Called when configuration is reloaded
+     * Stop the scoreboard update task and the render pool
      */
-    public void reloadTask() {
+    private void stopTask() {
         if (updateTask != null) {
             SchedulerUtil.cancelTask(updateTask);
+            updateTask = null;
+        }
+
+        if (renderExecutor != null) {
+            renderExecutor.shutdown();
+            renderExecutor = null;
         }
+    }
 
+    /**
+     * Reload the scoreboard update task
+     * Called when configuration is reloaded
+     */
+    public void reloadTask() {
+        stopTask();
         startTask();
     }
 
@@ -224,4 +683,48 @@ public class BoardManager {
             createBoard(player);
         }
     }
+
+    /**
+     * Area of a world updated by one batch task
+     * Matches the 16x16 chunk sections Folia groups regions from
+     */
+    private static final class RegionKey {
+        /** Shift from block to section coordinates */
+        private static final int SHIFT = 8;
+
+        private final World world;
+        private final int sectionX;
+        private final int sectionZ;
+
+        RegionKey(World world, int sectionX, int sectionZ) {
+            this.world = world;
+            this.sectionX = sectionX;
+            this.sectionZ = sectionZ;
+        }
+
+        int chunkX() {
+            return sectionX << (SHIFT - 4);
+        }
+
+        int chunkZ() {
+            return sectionZ << (SHIFT - 4);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RegionKey)) {
+                return false;
+            }
+            RegionKey other = (RegionKey) o;
+            return sectionX == other.sectionX && sectionZ == other.sectionZ && world.equals(other.world);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * world.hashCode() + sectionX) + sectionZ;
+        }
+    }
 }
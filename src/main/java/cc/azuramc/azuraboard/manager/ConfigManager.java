@@ -1,13 +1,18 @@
 package cc.azuramc.azuraboard.manager;
 
 import cc.azuramc.azuraboard.AzuraBoard;
-import cc.azuramc.azuraboard.util.ChatColorUtil;
+import cc.azuramc.azuraboard.render.BuiltinPlaceholder;
+import cc.azuramc.azuraboard.render.LineTemplate;
+import cc.azuramc.azuraboard.render.PlaceholderPolicy;
+import cc.azuramc.azuraboard.render.PlaceholderToken;
+import cc.azuramc.azuraboard.render.TokenTable;
 import lombok.Getter;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Configuration Manager for AzuraBoard
@@ -25,20 +30,59 @@ public class ConfigManager {
     @Getter private boolean usePlaceholders;
     @Getter private String defaultLanguage;
 
+    // Update scheduling
+    @Getter private boolean staggeredUpdates;
+    @Getter private double tickBudget;
+    @Getter private boolean regionBatchedUpdates;
+
+    // Adaptive update interval
+    @Getter private boolean adaptiveInterval;
+    @Getter private int adaptiveMaxMultiplier;
+    @Getter private double adaptiveStretchBelowTps;
+    @Getter private double adaptiveRestoreAboveTps;
+    @Getter private double adaptiveMaxCost;
+
+    // Asynchronous rendering
+    @Getter private boolean asyncRendering;
+    @Getter private int asyncRenderThreads;
+
+    // Client versions
+    @Getter private boolean legacyDownsampling;
+
     // Feature switches
     @Getter private boolean enableWorldSpecific;
     @Getter private boolean enablePermissionBased;
+    @Getter private int permissionRecheckInterval;
 
     // Priority settings
     @Getter private int permissionBasedPriority;
     @Getter private int worldSpecificPriority;
     @Getter private int defaultPriority;
 
+    // Placeholder settings
+    @Getter private PlaceholderPolicy placeholderPolicy;
+    @Getter private boolean placeholderCacheEnabled;
+    @Getter private int placeholderCacheSize;
+    @Getter private boolean directDispatch;
+    @Getter private int colorCacheSize;
+
     // Scoreboard configurations
     @Getter private ScoreboardConfig defaultScoreboard;
     @Getter private Map<String, ScoreboardConfig> worldScoreboards;
     @Getter private Map<String, PermissionScoreboardConfig> permissionScoreboards;
 
+    /** Scoreboard of every (world, permission mask) pair, replaced on every load */
+    @Getter private volatile DecisionTable decisionTable;
+
+    /**
+     * Map of player UUID to the board permission bits the player has
+     * Bit indexes belong to the decision table the mask was computed against
+     */
+    private final Map<UUID, TableBound<BitSet>> permissionMasks = new ConcurrentHashMap<>();
+
+    /** Map of player UUID to the scoreboard configuration resolved for the player, with the table it was resolved from */
+    private final Map<UUID, TableBound<ScoreboardConfig>> resolvedConfigs = new ConcurrentHashMap<>();
+
     /**
      * Load configuration from file
      */
@@ -52,15 +96,36 @@ public class ConfigManager {
         this.usePlaceholders = config.getBoolean("settings.use-placeholders", true);
         this.defaultLanguage = config.getString("settings.language", "en_US");
 
+        // Load update scheduling settings
+        this.staggeredUpdates = config.getBoolean("settings.staggered-updates", true);
+        this.tickBudget = Math.max(0, config.getDouble("settings.tick-budget", 0));
+        this.regionBatchedUpdates = "region".equalsIgnoreCase(config.getString("settings.folia-update-mode", "entity"));
+        this.legacyDownsampling = !"passthrough".equalsIgnoreCase(config.getString("settings.legacy-render-mode", "downsample"));
+
+        // Load adaptive update interval settings
+        this.adaptiveInterval = config.getBoolean("settings.adaptive-interval.enabled", false);
+        this.adaptiveMaxMultiplier = config.getInt("settings.adaptive-interval.max-multiplier", 4);
+        this.adaptiveStretchBelowTps = config.getDouble("settings.adaptive-interval.stretch-below-tps", 18.0);
+        this.adaptiveRestoreAboveTps = config.getDouble("settings.adaptive-interval.restore-above-tps", 19.5);
+        this.adaptiveMaxCost = config.getDouble("settings.adaptive-interval.max-cost", 5.0);
+
+        // Load asynchronous rendering settings
+        this.asyncRendering = config.getBoolean("settings.async-rendering.enabled", false);
+        this.asyncRenderThreads = Math.max(1, config.getInt("settings.async-rendering.threads", 2));
+
         // Load feature switches
         this.enableWorldSpecific = config.getBoolean("settings.enable-world-specific", true);
         this.enablePermissionBased = config.getBoolean("settings.enable-permission-based", true);
+        this.permissionRecheckInterval = Math.max(0, config.getInt("settings.permission-recheck-interval", 5));
 
         // Load priority settings
         this.permissionBasedPriority = config.getInt("settings.priority-order.permission-based", 100);
         this.worldSpecificPriority = config.getInt("settings.priority-order.world-specific", 50);
         this.defaultPriority = config.getInt("settings.priority-order.default", 0);
 
+        // Load placeholder settings, scoreboards are compiled against them
+        loadPlaceholderSettings();
+
         // Load default scoreboard
         loadDefaultScoreboard();
 
@@ -69,6 +134,57 @@ public class ConfigManager {
 
         // Load permission-based scoreboards
         loadPermissionScoreboards();
+
+        // Sort the scoreboards by priority once, and start with an empty decision table
+        this.decisionTable = new DecisionTable(defaultScoreboard, defaultPriority,
+                enableWorldSpecific ? worldScoreboards : Collections.<String, ScoreboardConfig>emptyMap(),
+                worldSpecificPriority,
+                enablePermissionBased ? permissionScoreboards.values() : Collections.<PermissionScoreboardConfig>emptyList());
+
+        // Permission masks and configurations resolved from the previous scoreboards are outdated,
+        // entries written for the previous table after this point are ignored as they carry that table
+        permissionMasks.clear();
+        resolvedConfigs.clear();
+    }
+
+    /**
+     * Load per-placeholder settings
+     */
+    private void loadPlaceholderSettings() {
+        this.directDispatch = config.getBoolean("placeholders.direct-dispatch", true);
+        this.colorCacheSize = config.getInt("placeholders.color-cache-size", 2048);
+        this.placeholderCacheEnabled = config.getBoolean("placeholders.cache.enabled", true);
+        this.placeholderCacheSize = config.getInt("placeholders.cache.max-size", 4096);
+        int defaultCacheTtl = config.getInt("placeholders.cache.default-ttl", 0);
+
+        Map<String, Integer> refreshIntervals = loadTickMap("placeholders.refresh-intervals", updateInterval);
+        Map<String, Integer> cacheTtls = loadTickMap("placeholders.cache.ttl", defaultCacheTtl);
+        Set<String> globalPlaceholders = new HashSet<>(config.getStringList("placeholders.global"));
+        Set<String> asyncSafePlaceholders = new HashSet<>(config.getStringList("placeholders.async-safe"));
+        boolean builtinPlaceholders = config.getBoolean("placeholders.builtin", true);
+
+        this.placeholderPolicy = new PlaceholderPolicy(updateInterval, refreshIntervals,
+                defaultCacheTtl, cacheTtls, globalPlaceholders, asyncSafePlaceholders, builtinPlaceholders);
+    }
+
+    /**
+     * Load a section of placeholder keys mapped to tick values
+     *
+     * @param path The path of the section
+     * @param def The value used for entries that are not numbers
+     * @return The tick values by placeholder key
+     */
+    private Map<String, Integer> loadTickMap(String path, int def) {
+        Map<String, Integer> values = new HashMap<>();
+
+        ConfigurationSection section = config.getConfigurationSection(path);
+        if (section != null) {
+            for (String key : section.getKeys(false)) {
+                values.put(key, section.getInt(key, def));
+            }
+        }
+
+        return values;
     }
 
     /**
@@ -77,7 +193,7 @@ public class ConfigManager {
     private void loadDefaultScoreboard() {
         String title = config.getString("default-scoreboard.title", "&b&lAzura&f&lBoard");
         List<String> lines = config.getStringList("default-scoreboard.lines");
-        this.defaultScoreboard = new ScoreboardConfig(title, lines);
+        this.defaultScoreboard = new ScoreboardConfig(title, lines, placeholderPolicy);
     }
 
     /**
@@ -107,12 +223,12 @@ public class ConfigManager {
         for (String worldName : worldSection.getKeys(false)) {
             ConfigurationSection worldConfig = worldSection.getConfigurationSection(worldName);
             if (worldConfig != null) {
-                String title = worldConfig.getString("title", defaultScoreboard.getTitle());
+                String title = worldConfig.getString("title", defaultScoreboard.getRawTitle());
                 List<String> lines = worldConfig.getStringList("lines");
                 if (lines.isEmpty()) {
-                    lines = defaultScoreboard.getLines();
+                    lines = defaultScoreboard.getRawLines();
                 }
-                worldScoreboards.put(worldName, new ScoreboardConfig(title, lines));
+                worldScoreboards.put(worldName, new ScoreboardConfig(title, lines, placeholderPolicy));
             }
         }
     }
@@ -121,7 +237,7 @@ public class ConfigManager {
      * Load permission-based scoreboard configurations
      */
     private void loadPermissionScoreboards() {
-        this.permissionScoreboards = new HashMap<>();
+        this.permissionScoreboards = new LinkedHashMap<>();
 
         if (!enablePermissionBased) {
             return;
@@ -137,13 +253,13 @@ public class ConfigManager {
             if (permConfig != null) {
                 String permission = permConfig.getString("permission");
                 if (permission != null && !permission.isEmpty()) {
-                    String title = permConfig.getString("title", defaultScoreboard.getTitle());
+                    String title = permConfig.getString("title", defaultScoreboard.getRawTitle());
                     List<String> lines = permConfig.getStringList("lines");
                     if (lines.isEmpty()) {
-                        lines = defaultScoreboard.getLines();
+                        lines = defaultScoreboard.getRawLines();
                     }
                     int priority = permConfig.getInt("priority", 0); // Default priority if not specified
-                    permissionScoreboards.put(configName, new PermissionScoreboardConfig(permission, title, lines, priority));
+                    permissionScoreboards.put(configName, new PermissionScoreboardConfig(permission, title, lines, priority, placeholderPolicy));
                 }
             }
         }
@@ -152,116 +268,278 @@ public class ConfigManager {
     /**
      * Get the appropriate scoreboard configuration for a player
      * Based on priority order: permission-based > world-specific > default
+     * The configuration is resolved once and cached until it is invalidated
      *
      * @param player The player to get configuration for
      * @return The appropriate scoreboard configuration
      */
     public ScoreboardConfig getScoreboardConfig(Player player) {
-        List<ScoreboardCandidate> candidates = new ArrayList<>();
+        DecisionTable table = decisionTable;
 
-        // Add default scoreboard
-        candidates.add(new ScoreboardCandidate(defaultScoreboard, defaultPriority));
-
-        // Add world-specific scoreboard if enabled and available
-        if (enableWorldSpecific) {
-            String worldName = player.getWorld().getName();
-            ScoreboardConfig worldConfig = worldScoreboards.get(worldName);
-            if (worldConfig != null) {
-                candidates.add(new ScoreboardCandidate(worldConfig, worldSpecificPriority));
-            }
+        TableBound<ScoreboardConfig> resolved = resolvedConfigs.get(player.getUniqueId());
+        if (resolved != null && resolved.table == table) {
+            return resolved.value;
         }
 
-        // Add permission-based scoreboard if enabled and player has permission
-        if (enablePermissionBased) {
-            for (PermissionScoreboardConfig permConfig : permissionScoreboards.values()) {
-                if (player.hasPermission(permConfig.getPermission())) {
-                    // Use individual permission scoreboard priority instead of global priority
-                    candidates.add(new ScoreboardCandidate(permConfig, permConfig.getPriority()));
-                }
-            }
-        }
+        ScoreboardConfig config = resolveScoreboardConfig(player, table);
+        resolvedConfigs.put(player.getUniqueId(), new TableBound<>(table, config));
+        return config;
+    }
 
-        // Sort by priority (highest first) and return the highest priority config
-        return candidates.stream()
-                .max(Comparator.comparingInt(ScoreboardCandidate::getPriority))
-                .map(ScoreboardCandidate::getConfig)
-                .orElse(defaultScoreboard);
+    /**
+     * Drop the cached scoreboard configuration of a player
+     * Called when the player's world or permissions change, when the board is toggled and when the player quits
+     *
+     * @param player The player
+     */
+    public void invalidateScoreboardConfig(Player player) {
+        resolvedConfigs.remove(player.getUniqueId());
     }
 
     /**
-     * Get title for a specific player (for backward compatibility)
+     * Check the player's board permissions again and drop the cached scoreboard configuration
+     * Called on join, world change and when the command list is sent again
      *
      * @param player The player
-     * @return The title for the player
      */
-    public String getTitle(Player player) {
-        return getScoreboardConfig(player).getTitle();
+    public void refreshPermissions(Player player) {
+        DecisionTable table = decisionTable;
+        permissionMasks.put(player.getUniqueId(), new TableBound<>(table, table.checkPermissions(player)));
+        resolvedConfigs.remove(player.getUniqueId());
     }
 
     /**
-     * Get lines for a specific player (for backward compatibility)
+     * Check the player's board permissions again, and drop the cached scoreboard configuration if they changed
+     * Called periodically by the update task, as most permission changes fire no event
      *
      * @param player The player
-     * @return The lines for the player
      */
-    public List<String> getLines(Player player) {
-        return getScoreboardConfig(player).getLines();
+    public void recheckPermissions(Player player) {
+        DecisionTable table = decisionTable;
+        BitSet mask = table.checkPermissions(player);
+
+        TableBound<BitSet> previous = permissionMasks.put(player.getUniqueId(), new TableBound<>(table, mask));
+        if (previous == null || previous.table != table || !previous.value.equals(mask)) {
+            resolvedConfigs.remove(player.getUniqueId());
+        }
     }
 
     /**
-     * Get default title (for backward compatibility)
+     * Forget everything cached for a player
+     * Called when the player quits
      *
-     * @return The default title
+     * @param player The player
      */
-    public String getTitle() {
-        return defaultScoreboard.getTitle();
+    public void forgetPlayer(Player player) {
+        permissionMasks.remove(player.getUniqueId());
+        resolvedConfigs.remove(player.getUniqueId());
     }
 
     /**
-     * Get default lines (for backward compatibility)
+     * Resolve the appropriate scoreboard configuration for a player
+     * A permission mask computed against another table is checked again, as its bit indexes do not apply
      *
-     * @return The default lines
+     * @param player The player to get configuration for
+     * @param table The decision table to resolve from
+     * @return The appropriate scoreboard configuration
      */
-    public List<String> getLines() {
-        return defaultScoreboard.getLines();
+    private ScoreboardConfig resolveScoreboardConfig(Player player, DecisionTable table) {
+        TableBound<BitSet> bound = permissionMasks.get(player.getUniqueId());
+        BitSet mask;
+        if (bound != null && bound.table == table) {
+            mask = bound.value;
+        } else {
+            mask = table.checkPermissions(player);
+            permissionMasks.put(player.getUniqueId(), new TableBound<>(table, mask));
+        }
+
+        // Players sharing a world and board permissions share one resolution
+        String world = table.isWorldDependent() ? player.getWorld().getName() : null;
+        return table.resolve(world, mask);
     }
 
     /**
      * Scoreboard configuration class
+     * Title and lines are compiled into templates once, when the configuration is loaded.
+     * Lines without placeholders are classified as constant and pre-rendered.
+     * Every distinct placeholder of the board gets one token slot, resolved once per refresh
+     * and shared by the title and all lines that use it.
      */
     public static class ScoreboardConfig {
-        @Getter private final String title;
-        @Getter private final List<String> lines;
+        /** Dependent index used for the title in {@link #getDependents(int)} */
+        public static final int TITLE = -1;
+
+        @Getter private final LineTemplate titleTemplate;
+        @Getter private final List<LineTemplate> lineTemplates;
+        @Getter private final TokenTable tokenTable;
+
+        /** Indexes of lines that contain placeholders */
+        private final int[] dynamicLines;
+
+        /** Refresh interval in ticks of every token slot */
+        private final int[] tokenIntervals;
+
+        /** Whether every token slot may be resolved off the main thread */
+        private final boolean[] asyncSafe;
 
-        public ScoreboardConfig(String title, List<String> lines) {
-            this.title = ChatColorUtil.color(title);
-            this.lines = ChatColorUtil.color(lines);
+        /** Built-in placeholder of every token slot, null for slots resolved through PlaceholderAPI */
+        private final BuiltinPlaceholder[] builtins;
+
+        /** Whether any token slot is resolved from a player snapshot */
+        @Getter private final boolean usingPlayerSnapshot;
+
+        /** Line indexes depending on every token slot, {@link #TITLE} for the title */
+        private final int[][] dependents;
+
+        public ScoreboardConfig(String title, List<String> lines, PlaceholderPolicy placeholderPolicy) {
+            this.tokenTable = new TokenTable();
+            this.titleTemplate = LineTemplate.compile(title, tokenTable);
+            this.lineTemplates = Collections.unmodifiableList(LineTemplate.compile(lines, tokenTable));
+
+            int[] dynamic = new int[lineTemplates.size()];
+            int dynamicCount = 0;
+            for (int i = 0; i < lineTemplates.size(); i++) {
+                if (!lineTemplates.get(i).isConstant()) {
+                    dynamic[dynamicCount++] = i;
+                }
+            }
+            this.dynamicLines = Arrays.copyOf(dynamic, dynamicCount);
+
+            this.tokenIntervals = new int[tokenTable.size()];
+            this.asyncSafe = new boolean[tokenTable.size()];
+            this.builtins = new BuiltinPlaceholder[tokenTable.size()];
+            boolean snapshotUsed = false;
+            for (int slot = 0; slot < tokenIntervals.length; slot++) {
+                PlaceholderToken token = tokenTable.get(slot);
+                tokenIntervals[slot] = placeholderPolicy.getRefreshInterval(token);
+                builtins[slot] = placeholderPolicy.getBuiltin(token);
+                // Built-in placeholders only read the snapshot, so they are always async-safe
+                asyncSafe[slot] = builtins[slot] != null || placeholderPolicy.isAsyncSafe(token);
+                snapshotUsed |= builtins[slot] != null;
+            }
+            this.usingPlayerSnapshot = snapshotUsed;
+
+            List<List<Integer>> dependentLists = new ArrayList<>();
+            for (int slot = 0; slot < tokenTable.size(); slot++) {
+                dependentLists.add(new ArrayList<>());
+            }
+            for (int slot : titleTemplate.getSlots()) {
+                dependentLists.get(slot).add(TITLE);
+            }
+            for (int index : dynamicLines) {
+                for (int slot : lineTemplates.get(index).getSlots()) {
+                    dependentLists.get(slot).add(index);
+                }
+            }
+            this.dependents = new int[tokenTable.size()][];
+            for (int slot = 0; slot < dependents.length; slot++) {
+                dependents[slot] = dependentLists.get(slot).stream().mapToInt(Integer::intValue).toArray();
+            }
+        }
+
+        /**
+         * Get the title as written in config.yml, before colors and gradients are expanded
+         *
+         * @return The raw title
+         */
+        public String getRawTitle() {
+            return titleTemplate.getRaw();
+        }
+
+        /**
+         * Get the lines as written in config.yml, before colors and gradients are expanded
+         * Boards inheriting the default lines are compiled from these, as colored text cannot be compiled again
+         *
+         * @return The raw lines
+         */
+        public List<String> getRawLines() {
+            List<String> rawLines = new ArrayList<>(lineTemplates.size());
+            for (LineTemplate template : lineTemplates) {
+                rawLines.add(template.getRaw());
+            }
+            return rawLines;
+        }
+
+        /**
+         * Get the refresh interval of a token slot
+         *
+         * @param slot The token slot
+         * @return The refresh interval in ticks
+         */
+        public int getTokenInterval(int slot) {
+            return tokenIntervals[slot];
+        }
+
+        /**
+         * Check if a token slot may be resolved off the main thread
+         *
+         * @param slot The token slot
+         * @return true if the placeholder is declared async-safe
+         */
+        public boolean isAsyncSafe(int slot) {
+            return asyncSafe[slot];
+        }
+
+        /**
+         * Get the built-in placeholder of a token slot
+         *
+         * @param slot The token slot
+         * @return The built-in placeholder, or null if the slot is resolved through PlaceholderAPI
+         */
+        public BuiltinPlaceholder getBuiltin(int slot) {
+            return builtins[slot];
+        }
+
+        /**
+         * Get the lines that have to be rendered again when a token slot changes
+         * The returned array must not be modified
+         *
+         * @param slot The token slot
+         * @return The dependent line indexes, {@link #TITLE} for the title
+         */
+        public int[] getDependents(int slot) {
+            return dependents[slot];
+        }
+
+        /**
+         * Get the indexes of lines that contain placeholders
+         * Constant lines are pre-rendered and never need to be updated once sent
+         * The returned array must not be modified
+         *
+         * @return The dynamic line indexes
+         */
+        public int[] getDynamicLines() {
+            return dynamicLines;
         }
     }
 
     /**
-     * Permission-based scoreboard configuration class
+     * Value computed against one decision table
+     * Checked against the current table on read, so values written for a replaced table are never used
+     *
+     * @param <T> The value type
      */
-    public static class PermissionScoreboardConfig extends ScoreboardConfig {
-        @Getter private final String permission;
-        @Getter private final int priority;
+    private static final class TableBound<T> {
+        private final DecisionTable table;
+        private final T value;
 
-        public PermissionScoreboardConfig(String permission, String title, List<String> lines, int priority) {
-            super(title, lines);
-            this.permission = permission;
-            this.priority = priority;
+        TableBound(DecisionTable table, T value) {
+            this.table = table;
+            this.value = value;
         }
     }
 
     /**
-     * Helper class for scoreboard candidate with priority
+     * Permission-based scoreboard configuration class
      */
-    private static class ScoreboardCandidate {
-        @Getter private final ScoreboardConfig config;
+    public static class PermissionScoreboardConfig extends ScoreboardConfig {
+        @Getter private final String permission;
         @Getter private final int priority;
 
-        public ScoreboardCandidate(ScoreboardConfig config, int priority) {
-            this.config = config;
+        public PermissionScoreboardConfig(String permission, String title, List<String> lines, int priority,
+                                          PlaceholderPolicy placeholderPolicy) {
+            super(title, lines, placeholderPolicy);
+            this.permission = permission;
             this.priority = priority;
         }
     }
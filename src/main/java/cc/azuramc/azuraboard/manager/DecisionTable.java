@@ -0,0 +1,211 @@
+package cc.azuramc.azuraboard.manager;
+
+import lombok.Getter;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decision table for scoreboard resolution
+ * The scoreboard of a player only depends on the player's world and the board permissions the player has,
+ * so every distinct (world, permission mask) pair is resolved once and shared by all players with that pair.
+ * A new table is built on every configuration load and swapped in as a whole
+ *
+ * @author an5w1r@163.com
+ */
+public class DecisionTable {
+
+    /** Scoreboard candidates sorted by priority, ending with the default scoreboard */
+    private final ScoreboardCandidate[] candidates;
+
+    /** Distinct board permissions, indexed by bit */
+    private final String[] permissionNodes;
+
+    /** World-specific scoreboards, by world name */
+    private final Map<String, ConfigManager.ScoreboardConfig> worldScoreboards;
+
+    /** Whether the resolution depends on the player's world */
+    @Getter private final boolean worldDependent;
+
+    /** Resolved scoreboard of every (world, permission mask) pair seen so far */
+    private final Map<DecisionKey, ConfigManager.ScoreboardConfig> decisions = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for DecisionTable
+     * Candidates with equal priority keep the order default, world-specific, permission-based (in the given order),
+     * and candidates after the default scoreboard are dropped because they can never be reached.
+     * Every distinct board permission gets a bit index into the players' permission masks
+     *
+     * @param defaultScoreboard The default scoreboard
+     * @param defaultPriority The priority of the default scoreboard
+     * @param worldScoreboards World-specific scoreboards by world name, empty if disabled
+     * @param worldPriority The priority of world-specific scoreboards
+     * @param permissionScoreboards Permission-based scoreboards, empty if disabled
+     */
+    public DecisionTable(ConfigManager.ScoreboardConfig defaultScoreboard, int defaultPriority,
+                         Map<String, ConfigManager.ScoreboardConfig> worldScoreboards, int worldPriority,
+                         Collection<ConfigManager.PermissionScoreboardConfig> permissionScoreboards) {
+        List<ScoreboardCandidate> list = new ArrayList<>();
+        Map<String, Integer> permissionBits = new LinkedHashMap<>();
+
+        // Add default scoreboard
+        list.add(new ScoreboardCandidate(defaultScoreboard, defaultPriority, -1, false));
+
+        // Add world-specific scoreboards if available
+        if (!worldScoreboards.isEmpty()) {
+            list.add(new ScoreboardCandidate(null, worldPriority, -1, true));
+        }
+
+        // Add permission-based scoreboards
+        for (ConfigManager.PermissionScoreboardConfig permConfig : permissionScoreboards) {
+            Integer bit = permissionBits.get(permConfig.getPermission());
+            if (bit == null) {
+                bit = permissionBits.size();
+                permissionBits.put(permConfig.getPermission(), bit);
+            }
+
+            // Use individual permission scoreboard priority instead of global priority
+            list.add(new ScoreboardCandidate(permConfig, permConfig.getPriority(), bit, false));
+        }
+
+        // Sort by priority (highest first), the sort is stable
+        list.sort((a, b) -> Integer.compare(b.getPriority(), a.getPriority()));
+
+        int end = 0;
+        while (list.get(end).getConfig() != defaultScoreboard) {
+            end++;
+        }
+
+        this.candidates = list.subList(0, end + 1).toArray(new ScoreboardCandidate[0]);
+        this.permissionNodes = permissionBits.keySet().toArray(new String[0]);
+        this.worldScoreboards = worldScoreboards;
+
+        boolean worldReachable = false;
+        for (ScoreboardCandidate candidate : candidates) {
+            worldReachable |= candidate.isWorldSpecific();
+        }
+        this.worldDependent = worldReachable;
+    }
+
+    /**
+     * Check every board permission for a player
+     *
+     * @param player The player
+     * @return The set of permission bits the player has
+     */
+    public BitSet checkPermissions(Player player) {
+        BitSet mask = new BitSet(permissionNodes.length);
+        for (int bit = 0; bit < permissionNodes.length; bit++) {
+            if (player.hasPermission(permissionNodes[bit])) {
+                mask.set(bit);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Get the scoreboard for a world and permission mask
+     *
+     * @param world The world name, ignored if the resolution does not depend on the world
+     * @param mask The permission bits the player has, must not be modified afterwards
+     * @return The scoreboard configuration
+     */
+    public ConfigManager.ScoreboardConfig resolve(String world, BitSet mask) {
+        DecisionKey key = new DecisionKey(worldDependent ? world : null, mask);
+        ConfigManager.ScoreboardConfig config = decisions.get(key);
+        if (config == null) {
+            config = decide(key);
+            decisions.put(key, config);
+        }
+        return config;
+    }
+
+    /**
+     * Get the number of (world, permission mask) pairs resolved so far
+     *
+     * @return The number of decisions
+     */
+    public int size() {
+        return decisions.size();
+    }
+
+    /**
+     * Walk the candidates in priority order, the first one that applies wins
+     *
+     * @param key The world and permission mask
+     * @return The scoreboard configuration
+     */
+    private ConfigManager.ScoreboardConfig decide(DecisionKey key) {
+        for (ScoreboardCandidate candidate : candidates) {
+            if (candidate.isWorldSpecific()) {
+                ConfigManager.ScoreboardConfig worldConfig = worldScoreboards.get(key.world);
+                if (worldConfig != null) {
+                    return worldConfig;
+                }
+            } else if (candidate.getPermissionBit() < 0 || key.mask.get(candidate.getPermissionBit())) {
+                return candidate.getConfig();
+            }
+        }
+
+        // The last candidate is always the default scoreboard
+        return candidates[candidates.length - 1].getConfig();
+    }
+
+    /**
+     * Helper class for scoreboard candidate with priority
+     * A candidate applies if the player has its permission bit set, or always if it has none.
+     * The world-specific candidate stands for the scoreboard of the player's world, if there is one
+     */
+    private static class ScoreboardCandidate {
+        @Getter private final ConfigManager.ScoreboardConfig config;
+        @Getter private final int priority;
+        @Getter private final int permissionBit;
+        @Getter private final boolean worldSpecific;
+
+        public ScoreboardCandidate(ConfigManager.ScoreboardConfig config, int priority, int permissionBit, boolean worldSpecific) {
+            this.config = config;
+            this.priority = priority;
+            this.permissionBit = permissionBit;
+            this.worldSpecific = worldSpecific;
+        }
+    }
+
+    /**
+     * Key of the decision table
+     */
+    private static final class DecisionKey {
+        private final String world;
+        private final BitSet mask;
+        private final int hash;
+
+        DecisionKey(String world, BitSet mask) {
+            this.world = world;
+            this.mask = mask;
+            this.hash = 31 * Objects.hashCode(world) + mask.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DecisionKey)) {
+                return false;
+            }
+            DecisionKey other = (DecisionKey) o;
+            return hash == other.hash && Objects.equals(world, other.world) && mask.equals(other.mask);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
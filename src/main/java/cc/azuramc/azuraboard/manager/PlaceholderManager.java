@@ -0,0 +1,164 @@
+package cc.azuramc.azuraboard.manager;
+
+import cc.azuramc.azuraboard.AzuraBoard;
+import cc.azuramc.azuraboard.render.ExpansionDispatcher;
+import cc.azuramc.azuraboard.render.PlaceholderCache;
+import cc.azuramc.azuraboard.render.PlaceholderPolicy;
+import cc.azuramc.azuraboard.render.PlaceholderToken;
+import cc.azuramc.azuraboard.render.RenderVariant;
+import cc.azuramc.azuraboard.util.ChatColorUtil;
+import lombok.Getter;
+import me.clip.placeholderapi.PlaceholderAPI;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Placeholder Manager for AzuraBoard
+ * Resolves placeholder tokens through PlaceholderAPI with a result cache in front of it,
+ * dispatching straight to the registered expansions when direct dispatch is enabled
+ *
+ * @author an5w1r@163.com
+ */
+public class PlaceholderManager {
+
+    private final AzuraBoard plugin;
+
+    /** Cache of resolved values, null if caching is disabled */
+    @Getter private PlaceholderCache cache;
+
+    /** Values of server-wide placeholders for the current update cycle */
+    private volatile Map<String, String> cycleValues = new ConcurrentHashMap<>();
+
+    /** Direct expansion dispatcher, null if disabled or PlaceholderAPI is not available */
+    @Getter private ExpansionDispatcher dispatcher;
+
+    /**
+     * Constructor for PlaceholderManager
+     *
+     * @param plugin The plugin instance
+     */
+    public PlaceholderManager(AzuraBoard plugin) {
+        this.plugin = plugin;
+        reload();
+    }
+
+    /**
+     * Recreate the cache and dispatcher from the current configuration
+     * Called when configuration is reloaded
+     */
+    public void reload() {
+        ConfigManager configManager = plugin.getConfigManager();
+
+        this.cache = configManager.isPlaceholderCacheEnabled()
+                ? new PlaceholderCache(configManager.getPlaceholderCacheSize())
+                : null;
+
+        this.dispatcher = plugin.isPlaceholderApiAvailable() && configManager.isDirectDispatch()
+                ? new ExpansionDispatcher()
+                : null;
+
+        ChatColorUtil.setMemoSize(configManager.getColorCacheSize());
+        RenderVariant.clearCaches();
+    }
+
+    /**
+     * Start a new update cycle
+     * Server-wide placeholders are resolved again the first time they are used in the new cycle
+     */
+    public void beginCycle() {
+        cycleValues = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Resolve a placeholder token for a player
+     * Server-wide placeholders are resolved once per update cycle and shared by every player
+     *
+     * @param player The player to resolve the token for
+     * @param token The placeholder token
+     * @return The colored value, or the colored raw token if it could not be resolved
+     */
+    public String resolve(Player player, PlaceholderToken token) {
+        PlaceholderPolicy policy = plugin.getConfigManager().getPlaceholderPolicy();
+
+        if (!policy.isGlobal(token)) {
+            return resolveCached(player, token, policy);
+        }
+
+        Map<String, String> values = cycleValues;
+        String value = values.get(token.getKey());
+        if (value == null) {
+            value = resolveCached(null, token, policy);
+            values.put(token.getKey(), value);
+        }
+
+        return value;
+    }
+
+    /**
+     * Resolve a placeholder token through the cache
+     * Cached values are used while their time to live lasts
+     *
+     * @param owner The player to resolve the token for, or null for server-wide placeholders
+     * @param token The placeholder token
+     * @param policy The placeholder settings
+     * @return The colored value, or the colored raw token if it could not be resolved
+     */
+    private String resolveCached(Player owner, PlaceholderToken token, PlaceholderPolicy policy) {
+        int ttl = policy.getCacheTtl(token);
+        PlaceholderCache cache = this.cache;
+
+        if (cache == null || ttl <= 0) {
+            return request(owner, token);
+        }
+
+        UUID ownerId = owner == null ? null : owner.getUniqueId();
+        String value = cache.get(ownerId, token.getKey());
+        if (value == null) {
+            value = request(owner, token);
+            cache.put(ownerId, token.getKey(), value, TimeUnit.MILLISECONDS.toNanos(ttl * 50L));
+        }
+
+        return value;
+    }
+
+    /**
+     * Drop every cached value of a player
+     * Called when the player quits
+     *
+     * @param player The player
+     */
+    public void invalidate(Player player) {
+        PlaceholderCache cache = this.cache;
+        if (cache != null) {
+            cache.invalidate(player.getUniqueId());
+        }
+    }
+
+    /**
+     * Request a placeholder value from its expansion, or from PlaceholderAPI if direct dispatch is disabled
+     *
+     * @param player The player, or null for server-wide placeholders
+     * @param token The placeholder token
+     * @return The colored value, or the colored raw token if it could not be resolved
+     */
+    private String request(Player player, PlaceholderToken token) {
+        if (!plugin.isPlaceholderApiAvailable()) {
+            return ChatColorUtil.color(token.getRaw());
+        }
+
+        try {
+            ExpansionDispatcher dispatcher = this.dispatcher;
+            if (dispatcher != null) {
+                return ChatColorUtil.color(dispatcher.request(player, token));
+            }
+            return ChatColorUtil.color(PlaceholderAPI.setPlaceholders(player, token.getRaw()));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ChatColorUtil.color(token.getRaw());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package cc.azuramc.azuraboard.manager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assignment of players to update shards
+ * Every player gets a phase within the update interval and is only updated on the ticks of that phase,
+ * so each tick updates roughly the same share of players instead of all of them at once
+ *
+ * @author an5w1r@163.com
+ */
+public class UpdateShards {
+
+    /** Players of every shard, indexed by phase */
+    private final List<Set<UUID>> shards;
+
+    /** Phase of every assigned player */
+    private final Map<UUID, Integer> phases = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for UpdateShards
+     *
+     * @param shardCount The number of shards, one per tick of the update interval
+     */
+    public UpdateShards(int shardCount) {
+        List<Set<UUID>> list = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, shardCount); i++) {
+            list.add(ConcurrentHashMap.newKeySet());
+        }
+        this.shards = Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Assign a player to the shard with the fewest players
+     *
+     * @param uuid The player's UUID
+     * @return The phase the player is assigned to
+     */
+    public synchronized int assign(UUID uuid) {
+        Integer current = phases.get(uuid);
+        if (current != null) {
+            return current;
+        }
+
+        int phase = 0;
+        for (int i = 1; i < shards.size(); i++) {
+            if (shards.get(i).size() < shards.get(phase).size()) {
+                phase = i;
+            }
+        }
+
+        shards.get(phase).add(uuid);
+        phases.put(uuid, phase);
+        return phase;
+    }
+
+    /**
+     * Remove a player from its shard
+     *
+     * @param uuid The player's UUID
+     */
+    public synchronized void release(UUID uuid) {
+        Integer phase = phases.remove(uuid);
+        if (phase != null) {
+            shards.get(phase).remove(uuid);
+        }
+    }
+
+    /**
+     * Get the players of a shard
+     *
+     * @param phase The phase of the shard
+     * @return The players' UUIDs
+     */
+    public Set<UUID> getShard(int phase) {
+        return shards.get(phase);
+    }
+
+    /**
+     * Get the phase a player is assigned to
+     *
+     * @param uuid The player's UUID
+     * @return The phase, or -1 if the player has no board
+     */
+    public int getPhase(UUID uuid) {
+        Integer phase = phases.get(uuid);
+        return phase != null ? phase : -1;
+    }
+
+    /**
+     * Get the number of players in every shard
+     *
+     * @return The shard sizes, indexed by phase
+     */
+    public int[] getShardSizes() {
+        int[] sizes = new int[shards.size()];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = shards.get(i).size();
+        }
+        return sizes;
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+}
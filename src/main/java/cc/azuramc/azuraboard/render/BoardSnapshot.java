@@ -0,0 +1,251 @@
+package cc.azuramc.azuraboard.render;
+
+import cc.azuramc.azuraboard.manager.ConfigManager;
+import lombok.Getter;
+import org.bukkit.entity.Player;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Last rendered state of a player's scoreboard
+ * All placeholders of the board are resolved in one pass into per-slot values,
+ * and only the title and lines depending on a changed value are rendered again.
+ * Every render is compared against the previous one by hash and content,
+ * so unchanged titles and lines cause no string allocation and no FastBoard call
+ *
+ * @author an5w1r@163.com
+ */
+public final class BoardSnapshot {
+
+    /**
+     * Which placeholders a resolution pass covers
+     */
+    public enum Phase {
+        /** Every placeholder */
+        ALL,
+        /** Placeholders that have to be resolved on the main thread */
+        MAIN,
+        /** Async-safe placeholders, resolved on the render pool */
+        ASYNC
+    }
+
+    /** How the rendered title and lines are converted for the player's client */
+    @Getter private final RenderVariant variant;
+
+    /** Held while the asynchronous pipeline works on this snapshot */
+    private final AtomicBoolean busy = new AtomicBoolean();
+
+    /** Buffer the title and lines are rendered into before comparing */
+    private final StringBuilder buffer = new StringBuilder(64);
+
+    /** The configuration the snapshot was rendered from */
+    private ConfigManager.ScoreboardConfig config;
+
+    /** Resolved placeholder values and their next refresh tick, indexed by token slot */
+    private String[] values = new String[0];
+    private long[] valueDueAt = new long[0];
+
+    private String title;
+    private int titleHash;
+    private boolean titleDirty;
+
+    private String[] lines = new String[0];
+    private int[] lineHashes = new int[0];
+    private boolean[] lineDirty = new boolean[0];
+
+    /**
+     * Constructor for BoardSnapshot
+     *
+     * @param variant How the rendered title and lines are converted for the player's client
+     */
+    public BoardSnapshot(RenderVariant variant) {
+        this.variant = variant;
+    }
+
+    /**
+     * Bind the snapshot to the configuration the next render uses
+     * The last rendered title and lines are forgotten if the configuration changed.
+     * Binding to null forces the next render to send the whole board again.
+     *
+     * @param config The scoreboard configuration, or null
+     * @return true if the configuration changed and the whole board has to be sent again
+     */
+    public boolean bind(ConfigManager.ScoreboardConfig config) {
+        if (this.config == config) {
+            return false;
+        }
+
+        int size = config == null ? 0 : config.getLineTemplates().size();
+        int slots = config == null ? 0 : config.getTokenTable().size();
+        this.config = config;
+        this.values = new String[slots];
+        this.valueDueAt = new long[slots];
+        this.title = null;
+        this.titleDirty = true;
+        this.lines = new String[size];
+        this.lineHashes = new int[size];
+        this.lineDirty = new boolean[size];
+        Arrays.fill(lineDirty, true);
+        return true;
+    }
+
+    /**
+     * Resolve the placeholders of the board whose refresh interval elapsed
+     * Each distinct placeholder is resolved once, and the title and lines using a changed value are marked dirty
+     *
+     * @param player The player to resolve for
+     * @param playerSnapshot The player state built-in placeholders are resolved from, null if the board uses none
+     * @param tick The current update tick
+     * @param phase Which placeholders to resolve
+     */
+    public void resolve(Player player, PlayerSnapshot playerSnapshot, long tick, Phase phase) {
+        TokenTable table = config.getTokenTable();
+
+        for (int slot = 0; slot < values.length; slot++) {
+            if (tick < valueDueAt[slot]) {
+                continue;
+            }
+            if (phase != Phase.ALL && config.isAsyncSafe(slot) != (phase == Phase.ASYNC)) {
+                continue;
+            }
+
+            valueDueAt[slot] = tick + config.getTokenInterval(slot);
+            BuiltinPlaceholder builtin = config.getBuiltin(slot);
+            String value = builtin != null ? builtin.resolve(playerSnapshot) : table.get(slot).resolve(player);
+            if (value.equals(values[slot])) {
+                continue;
+            }
+
+            values[slot] = value;
+            for (int dependent : config.getDependents(slot)) {
+                if (dependent == ConfigManager.ScoreboardConfig.TITLE) {
+                    titleDirty = true;
+                } else {
+                    lineDirty[dependent] = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Render the title if a value it depends on changed, and compare it with the last rendered title
+     *
+     * @return The new title if it changed, otherwise null
+     */
+    public String renderTitle() {
+        if (!titleDirty) {
+            return null;
+        }
+        titleDirty = false;
+
+        buffer.setLength(0);
+        config.getTitleTemplate().renderTo(values, buffer);
+
+        int hash = hash(buffer);
+        if (title != null && hash == titleHash && title.contentEquals(buffer)) {
+            return null;
+        }
+
+        title = buffer.toString();
+        titleHash = hash;
+        return title;
+    }
+
+    /**
+     * Render a line if a value it depends on changed, and compare it with the last rendered line
+     *
+     * @param index The line index
+     * @return The new line if it changed, otherwise null
+     */
+    public String renderLine(int index) {
+        if (!lineDirty[index]) {
+            return null;
+        }
+        lineDirty[index] = false;
+
+        LineTemplate template = config.getLineTemplates().get(index);
+        String previous = lines[index];
+
+        if (template.isConstant()) {
+            String text = template.constantText();
+            if (text == previous) {
+                return null;
+            }
+            lines[index] = text;
+            lineHashes[index] = text.hashCode();
+            return text;
+        }
+
+        buffer.setLength(0);
+        template.renderTo(values, buffer);
+
+        int hash = hash(buffer);
+        if (previous != null && hash == lineHashes[index] && previous.contentEquals(buffer)) {
+            return null;
+        }
+
+        String text = buffer.toString();
+        lines[index] = text;
+        lineHashes[index] = hash;
+        return text;
+    }
+
+    /**
+     * Claim the snapshot for the asynchronous pipeline
+     *
+     * @return true if the snapshot was free and is now claimed
+     */
+    public boolean tryAcquire() {
+        return busy.compareAndSet(false, true);
+    }
+
+    /**
+     * Release the snapshot after the asynchronous pipeline finished with it
+     */
+    public void release() {
+        busy.set(false);
+    }
+
+    /**
+     * Get the last rendered lines
+     * The returned array is owned by the snapshot and must not be modified
+     *
+     * @return The last rendered lines
+     */
+    public String[] getLines() {
+        return lines;
+    }
+
+    /**
+     * Forget the last rendered title so it is sent again on the next update
+     */
+    public void invalidateTitle() {
+        title = null;
+        titleDirty = true;
+    }
+
+    /**
+     * Forget a last rendered line so it is sent again on the next update
+     *
+     * @param index The line index
+     */
+    public void invalidateLine(int index) {
+        lines[index] = null;
+        lineDirty[index] = true;
+    }
+
+    /**
+     * Compute the same hash as {@link String#hashCode()} without creating a string
+     *
+     * @param text The text to hash
+     * @return The hash
+     */
+    private static int hash(CharSequence text) {
+        int hash = 0;
+        for (int i = 0; i < text.length(); i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,62 @@
+package cc.azuramc.azuraboard.render;
+
+import cc.azuramc.azuraboard.util.ChatColorUtil;
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Placeholders resolved by AzuraBoard itself from a {@link PlayerSnapshot}
+ * They use the same names and values as PlaceholderAPI's Player expansion,
+ * but need no PlaceholderAPI call and can be resolved off the main thread
+ *
+ * @author an5w1r@163.com
+ */
+public enum BuiltinPlaceholder {
+    PLAYER_NAME("player_name", PlayerSnapshot::getName),
+    PLAYER_DISPLAYNAME("player_displayname", PlayerSnapshot::getDisplayName),
+    PLAYER_WORLD("player_world", PlayerSnapshot::getWorld),
+    PLAYER_X("player_x", snapshot -> String.valueOf(snapshot.getBlockX())),
+    PLAYER_Y("player_y", snapshot -> String.valueOf(snapshot.getBlockY())),
+    PLAYER_Z("player_z", snapshot -> String.valueOf(snapshot.getBlockZ())),
+    PLAYER_LEVEL("player_level", snapshot -> String.valueOf(snapshot.getLevel()));
+
+    private static final Map<String, BuiltinPlaceholder> BY_KEY = new HashMap<>();
+
+    static {
+        for (BuiltinPlaceholder placeholder : values()) {
+            BY_KEY.put(placeholder.key, placeholder);
+        }
+    }
+
+    /** The placeholder without percent signs */
+    @Getter private final String key;
+    private final Function<PlayerSnapshot, String> value;
+
+    BuiltinPlaceholder(String key, Function<PlayerSnapshot, String> value) {
+        this.key = key;
+        this.value = value;
+    }
+
+    /**
+     * Resolve the placeholder from a player snapshot
+     *
+     * @param snapshot The player snapshot
+     * @return The colored value
+     */
+    public String resolve(PlayerSnapshot snapshot) {
+        return ChatColorUtil.color(value.apply(snapshot));
+    }
+
+    /**
+     * Get the built-in placeholder for a token
+     *
+     * @param token The placeholder token
+     * @return The built-in placeholder, or null if the token is not built in
+     */
+    public static BuiltinPlaceholder of(PlaceholderToken token) {
+        return BY_KEY.get(token.getKey());
+    }
+}
@@ -0,0 +1,80 @@
+package cc.azuramc.azuraboard.render;
+
+import me.clip.placeholderapi.PlaceholderAPIPlugin;
+import me.clip.placeholderapi.expansion.PlaceholderExpansion;
+import org.bukkit.entity.Player;
+
+/**
+ * Direct dispatch of placeholder tokens to their PlaceholderAPI expansion
+ * Each token is bound to its registered expansion once and requested through onRequest directly,
+ * skipping PlaceholderAPI's string scanning and expansion lookup on every call.
+ * Bindings are dropped whenever an expansion registers or unregisters.
+ * Only loaded when PlaceholderAPI is available.
+ *
+ * @author an5w1r@163.com
+ */
+public final class ExpansionDispatcher {
+
+    /** Incremented whenever the registered expansions change */
+    private volatile int generation;
+
+    /**
+     * Drop all bindings, tokens are bound again the next time they are requested
+     * Called when an expansion registers or unregisters
+     */
+    public void invalidateBindings() {
+        generation++;
+    }
+
+    /**
+     * Request a token's value from its expansion
+     * Behaves like PlaceholderAPI: unknown placeholders and null values leave the raw token in place
+     *
+     * @param player The player, or null for server-wide placeholders
+     * @param token The placeholder token
+     * @return The uncolored value
+     */
+    public String request(Player player, PlaceholderToken token) {
+        PlaceholderExpansion expansion = bind(token);
+        if (expansion == null) {
+            return token.getRaw();
+        }
+
+        String value = expansion.onRequest(player, token.getParams());
+        return value != null ? value : token.getRaw();
+    }
+
+    /**
+     * Get the expansion a token is bound to, binding it if the binding is missing or outdated
+     *
+     * @param token The placeholder token
+     * @return The expansion, or null if no expansion is registered for the token
+     */
+    private PlaceholderExpansion bind(PlaceholderToken token) {
+        int current = generation;
+        Binding binding = token.getBinding();
+
+        if (binding == null || binding.generation != current) {
+            PlaceholderExpansion expansion = PlaceholderAPIPlugin.getInstance()
+                    .getLocalExpansionManager()
+                    .getExpansion(token.getIdentifier());
+            binding = new Binding(expansion, current);
+            token.setBinding(binding);
+        }
+
+        return binding.expansion;
+    }
+
+    /**
+     * Expansion a token is bound to, valid for one generation of registered expansions
+     */
+    public static final class Binding {
+        private final PlaceholderExpansion expansion;
+        private final int generation;
+
+        Binding(PlaceholderExpansion expansion, int generation) {
+            this.expansion = expansion;
+            this.generation = generation;
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package cc.azuramc.azuraboard.render;
+
+import cc.azuramc.azuraboard.util.ChatColorUtil;
+import cc.azuramc.azuraboard.util.ColorRamp;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compiled scoreboard line template
+ * A config line is split once at load time into colored literal segments and placeholder tokens,
+ * so an update only resolves the tokens and concatenates the segments.
+ * Gradient and rainbow spans are expanded at the same time: literal text gets its colors once,
+ * and placeholders inside a span are given the slice of the ramp their position covers
+ *
+ * @author an5w1r@163.com
+ */
+public final class LineTemplate {
+
+    /** The raw line as written in config.yml */
+    @Getter private final String raw;
+
+    /** Segments in line order */
+    private final Segment[] segments;
+
+    /** Distinct token table slots the line depends on */
+    private final int[] slots;
+
+    /** Pre-rendered text if the line contains no placeholders, otherwise null */
+    private final String constantText;
+
+    private LineTemplate(String raw, Segment[] segments, int[] slots) {
+        this.raw = raw;
+        this.segments = segments;
+        this.slots = slots;
+
+        if (slots.length == 0) {
+            // Only literal segments, which need no values
+            StringBuilder text = new StringBuilder();
+            for (Segment segment : segments) {
+                segment.append(null, text);
+            }
+            this.constantText = text.toString();
+        } else {
+            this.constantText = null;
+        }
+    }
+
+    /**
+     * Compile a raw config line into a template
+     * Tokens follow PlaceholderAPI's rules: %identifier_params%, where the identifier may not contain spaces
+     *
+     * @param raw The raw line
+     * @param table The token table placeholders are interned into
+     * @return The compiled template
+     */
+    public static LineTemplate compile(String raw, TokenTable table) {
+        if (raw == null) {
+            raw = "";
+        }
+
+        List<Segment> segments = new ArrayList<>();
+        Set<Integer> slots = new LinkedHashSet<>();
+
+        for (ColorRamp.Span span : ColorRamp.split(raw)) {
+            List<String> pieces = splitTokens(span.getText());
+            ColorRamp.Writer writer = null;
+
+            if (span.getRamp() != null) {
+                // Placeholders take as many ramp positions as their raw token has characters
+                int width = 0;
+                for (int i = 0; i < pieces.size(); i++) {
+                    width += i % 2 == 0 ? ChatColorUtil.visibleLength(pieces.get(i)) : pieces.get(i).length();
+                }
+                writer = new ColorRamp.Writer(span.getRamp(), width);
+            }
+
+            for (int i = 0; i < pieces.size(); i++) {
+                String piece = pieces.get(i);
+
+                if (i % 2 == 0) {
+                    if (piece.isEmpty()) {
+                        continue;
+                    }
+                    if (writer == null) {
+                        segments.add(new LiteralSegment(ChatColorUtil.color(piece)));
+                    } else {
+                        StringBuilder colored = new StringBuilder();
+                        writer.appendText(piece, colored);
+                        segments.add(new LiteralSegment(colored.toString()));
+                    }
+                    continue;
+                }
+
+                int slot = table.intern(piece);
+                if (writer == null) {
+                    segments.add(new PlaceholderSegment(slot));
+                } else {
+                    String formats = writer.getFormats();
+                    segments.add(new RampedPlaceholderSegment(slot, writer.takeCodes(piece.length()), formats));
+                }
+                slots.add(slot);
+            }
+        }
+
+        int[] slotArray = new int[slots.size()];
+        int index = 0;
+        for (int slot : slots) {
+            slotArray[index++] = slot;
+        }
+
+        return new LineTemplate(raw, segments.toArray(new Segment[0]), slotArray);
+    }
+
+    /**
+     * Compile a list of raw config lines
+     *
+     * @param lines The raw lines
+     * @param table The token table placeholders are interned into
+     * @return The compiled templates
+     */
+    public static List<LineTemplate> compile(List<String> lines, TokenTable table) {
+        List<LineTemplate> templates = new ArrayList<>();
+
+        if (lines == null) {
+            return templates;
+        }
+
+        for (String line : lines) {
+            templates.add(compile(line, table));
+        }
+
+        return templates;
+    }
+
+    /**
+     * Split text into literal text and placeholder tokens
+     *
+     * @param text The text
+     * @return Literal text at even indexes and raw tokens at odd indexes, starting and ending with literal text
+     */
+    private static List<String> splitTokens(String text) {
+        List<String> pieces = new ArrayList<>();
+        int literalStart = 0;
+
+        int i = 0;
+        while (i < text.length()) {
+            int end = text.charAt(i) == '%' ? findTokenEnd(text, i) : -1;
+            if (end < 0) {
+                i++;
+                continue;
+            }
+
+            pieces.add(text.substring(literalStart, i));
+            pieces.add(text.substring(i, end + 1));
+            i = end + 1;
+            literalStart = i;
+        }
+
+        pieces.add(text.substring(literalStart));
+        return pieces;
+    }
+
+    /**
+     * Find the closing percent sign of a token starting at the given index
+     *
+     * @param raw The raw line
+     * @param start The index of the opening percent sign
+     * @return The index of the closing percent sign, or -1 if this is not a token
+     */
+    private static int findTokenEnd(String raw, int start) {
+        boolean identified = false;
+
+        for (int i = start + 1; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+
+            if (c == '%') {
+                return i == start + 1 ? -1 : i;
+            }
+            if (c == ' ' && !identified) {
+                return -1;
+            }
+            if (c == '_') {
+                identified = true;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Check if this line contains no placeholders
+     * Constant lines are rendered once at compile time and never change
+     *
+     * @return true if the line is constant
+     */
+    public boolean isConstant() {
+        return constantText != null;
+    }
+
+    /**
+     * Get the token table slots this line depends on
+     * The returned array must not be modified
+     *
+     * @return The distinct slots of the line's placeholders
+     */
+    public int[] getSlots() {
+        return slots;
+    }
+
+    /**
+     * Get the text of a constant line, rendered once at compile time
+     *
+     * @return The rendered line, or null if the line contains placeholders
+     */
+    public String constantText() {
+        return constantText;
+    }
+
+    /**
+     * Render this template from already resolved placeholder values into a buffer
+     *
+     * @param values Resolved values indexed by token table slot
+     * @param buffer The buffer to append the rendered line to
+     */
+    public void renderTo(String[] values, StringBuilder buffer) {
+        if (constantText != null) {
+            buffer.append(constantText);
+            return;
+        }
+
+        for (Segment segment : segments) {
+            segment.append(values, buffer);
+        }
+    }
+
+    /**
+     * A piece of a compiled line
+     */
+    private interface Segment {
+        void append(String[] values, StringBuilder buffer);
+    }
+
+    /**
+     * Literal text, already colored at compile time
+     */
+    private static final class LiteralSegment implements Segment {
+        private final String text;
+
+        LiteralSegment(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public void append(String[] values, StringBuilder buffer) {
+            buffer.append(text);
+        }
+    }
+
+    /**
+     * Placeholder token, read from its token table slot
+     */
+    private static final class PlaceholderSegment implements Segment {
+        private final int slot;
+
+        PlaceholderSegment(int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public void append(String[] values, StringBuilder buffer) {
+            buffer.append(values[slot]);
+        }
+    }
+
+    /**
+     * Placeholder token inside a gradient or rainbow span
+     * The value is colored with the precomputed slice of the ramp covering the token's position
+     */
+    private static final class RampedPlaceholderSegment implements Segment {
+        private final int slot;
+        private final String[] codes;
+        private final String formats;
+
+        RampedPlaceholderSegment(int slot, String[] codes, String formats) {
+            this.slot = slot;
+            this.codes = codes;
+            this.formats = formats;
+        }
+
+        @Override
+        public void append(String[] values, StringBuilder buffer) {
+            ChatColorUtil.appendRamped(values[slot], codes, formats, buffer);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package cc.azuramc.azuraboard.render;
+
+import cc.azuramc.azuraboard.util.BoundedCache;
+
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of resolved placeholder values
+ * Entries are keyed by player and placeholder, server-wide placeholders use a null player.
+ * Entries expire after their time to live and the least recently used entries are evicted when full.
+ * Reads take no lock, so the render pool and Folia region threads resolve in parallel.
+ *
+ * @author an5w1r@163.com
+ */
+public final class PlaceholderCache {
+
+    private final BoundedCache<Key, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructor for PlaceholderCache
+     *
+     * @param maxSize The maximum number of cached values
+     */
+    public PlaceholderCache(int maxSize) {
+        this.entries = new BoundedCache<>(maxSize);
+    }
+
+    /**
+     * Get a cached value
+     *
+     * @param owner The player the value was resolved for, or null for server-wide placeholders
+     * @param placeholder The placeholder key
+     * @return The cached value, or null if there is no value or it expired
+     */
+    public String get(UUID owner, String placeholder) {
+        Key key = new Key(owner, placeholder);
+        Entry entry = entries.get(key);
+
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+
+        if (System.nanoTime() - entry.expiresAt >= 0) {
+            entries.remove(key);
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        return entry.value;
+    }
+
+    /**
+     * Cache a value
+     *
+     * @param owner The player the value was resolved for, or null for server-wide placeholders
+     * @param placeholder The placeholder key
+     * @param value The resolved value
+     * @param ttlNanos The time to live in nanoseconds
+     */
+    public void put(UUID owner, String placeholder, String value, long ttlNanos) {
+        entries.put(new Key(owner, placeholder), new Entry(value, System.nanoTime() + ttlNanos));
+    }
+
+    /**
+     * Remove every value cached for a player
+     *
+     * @param owner The player's UUID
+     */
+    public void invalidate(UUID owner) {
+        entries.removeIf(key -> owner.equals(key.owner));
+    }
+
+    /**
+     * Remove every cached value
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Cache key of a player and placeholder
+     */
+    private static final class Key {
+        private final UUID owner;
+        private final String placeholder;
+
+        Key(UUID owner, String placeholder) {
+            this.owner = owner;
+            this.placeholder = placeholder;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return placeholder.equals(other.placeholder) && Objects.equals(owner, other.owner);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(owner) + placeholder.hashCode();
+        }
+    }
+
+    /**
+     * Cached value with its expiry time
+     */
+    private static final class Entry {
+        private final String value;
+        private final long expiresAt;
+
+        Entry(String value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
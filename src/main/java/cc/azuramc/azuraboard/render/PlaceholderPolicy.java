@@ -0,0 +1,149 @@
+package cc.azuramc.azuraboard.render;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-placeholder settings from the placeholders section of config.yml
+ * Settings are keyed by the placeholder without percent signs (e.g. "player_x"),
+ * or by the expansion identifier alone (e.g. "vault") to cover all of its placeholders
+ *
+ * @author an5w1r@163.com
+ */
+public final class PlaceholderPolicy {
+
+    /** Expansions known to resolve to the same value for every player */
+    private static final Set<String> SERVER_WIDE_EXPANSIONS = new HashSet<>(Arrays.asList("server", "bungee"));
+
+    /** Refresh interval in ticks for placeholders without their own interval */
+    @Getter private final int defaultInterval;
+
+    /** Refresh intervals in ticks, by placeholder or expansion identifier */
+    private final Map<String, Integer> refreshIntervals;
+
+    /** Cache time to live in ticks for placeholders without their own, 0 disables caching */
+    @Getter private final int defaultCacheTtl;
+
+    /** Cache time to live in ticks, by placeholder or expansion identifier */
+    private final Map<String, Integer> cacheTtls;
+
+    /** Server-wide placeholders and expansions declared in config, resolved without a player */
+    private final Set<String> globalPlaceholders;
+
+    /** Placeholders and expansions that may be resolved off the main thread */
+    private final Set<String> asyncSafePlaceholders;
+
+    /** Whether built-in placeholders are resolved from player snapshots instead of PlaceholderAPI */
+    @Getter private final boolean builtinPlaceholders;
+
+    /**
+     * Constructor for PlaceholderPolicy
+     *
+     * @param defaultInterval The default refresh interval in ticks
+     * @param refreshIntervals Refresh intervals in ticks, by placeholder or expansion identifier
+     * @param defaultCacheTtl The default cache time to live in ticks
+     * @param cacheTtls Cache time to live in ticks, by placeholder or expansion identifier
+     * @param globalPlaceholders Server-wide placeholders and expansions
+     * @param asyncSafePlaceholders Placeholders and expansions that may be resolved off the main thread
+     * @param builtinPlaceholders Whether built-in placeholders are resolved from player snapshots
+     */
+    public PlaceholderPolicy(int defaultInterval, Map<String, Integer> refreshIntervals,
+                             int defaultCacheTtl, Map<String, Integer> cacheTtls,
+                             Set<String> globalPlaceholders, Set<String> asyncSafePlaceholders,
+                             boolean builtinPlaceholders) {
+        this.defaultInterval = Math.max(1, defaultInterval);
+        this.refreshIntervals = Collections.unmodifiableMap(refreshIntervals);
+        this.defaultCacheTtl = Math.max(0, defaultCacheTtl);
+        this.cacheTtls = Collections.unmodifiableMap(cacheTtls);
+        this.globalPlaceholders = Collections.unmodifiableSet(globalPlaceholders);
+        this.asyncSafePlaceholders = Collections.unmodifiableSet(asyncSafePlaceholders);
+        this.builtinPlaceholders = builtinPlaceholders;
+    }
+
+    /**
+     * Get the refresh interval of a placeholder
+     *
+     * @param token The placeholder token
+     * @return The refresh interval in ticks
+     */
+    public int getRefreshInterval(PlaceholderToken token) {
+        Integer interval = lookup(refreshIntervals, token);
+        return interval != null ? Math.max(1, interval) : defaultInterval;
+    }
+
+    /**
+     * Get the cache time to live of a placeholder
+     *
+     * @param token The placeholder token
+     * @return The time to live in ticks, 0 if the placeholder is not cached
+     */
+    public int getCacheTtl(PlaceholderToken token) {
+        Integer ttl = lookup(cacheTtls, token);
+        return ttl != null ? Math.max(0, ttl) : defaultCacheTtl;
+    }
+
+    /**
+     * Check if a placeholder is server-wide
+     * Server-wide placeholders resolve to the same value for every player,
+     * either because they are declared global or because their expansion is known to be player independent
+     *
+     * @param token The placeholder token
+     * @return true if the placeholder is server-wide
+     */
+    public boolean isGlobal(PlaceholderToken token) {
+        return globalPlaceholders.contains(token.getKey())
+                || globalPlaceholders.contains(token.getIdentifier())
+                || SERVER_WIDE_EXPANSIONS.contains(token.getIdentifier());
+    }
+
+    /**
+     * Get the built-in placeholder a token is resolved with
+     *
+     * @param token The placeholder token
+     * @return The built-in placeholder, or null if the token goes through PlaceholderAPI
+     */
+    public BuiltinPlaceholder getBuiltin(PlaceholderToken token) {
+        return builtinPlaceholders ? BuiltinPlaceholder.of(token) : null;
+    }
+
+    /**
+     * Check if a placeholder may be resolved off the main thread
+     *
+     * @param token The placeholder token
+     * @return true if the placeholder or its expansion is declared async-safe
+     */
+    public boolean isAsyncSafe(PlaceholderToken token) {
+        return asyncSafePlaceholders.contains(token.getKey()) || asyncSafePlaceholders.contains(token.getIdentifier());
+    }
+
+    /**
+     * Get the period the update task has to run at to honour every refresh interval
+     *
+     * @return The shortest configured interval in ticks
+     */
+    public int getBasePeriod() {
+        int period = defaultInterval;
+        for (int interval : refreshIntervals.values()) {
+            period = Math.min(period, Math.max(1, interval));
+        }
+        return period;
+    }
+
+    /**
+     * Look up a setting for a placeholder, first by full key and then by expansion identifier
+     *
+     * @param settings The settings map
+     * @param token The placeholder token
+     * @param <T> The setting type
+     * @return The setting, or null if the placeholder has none
+     */
+    private static <T> T lookup(Map<String, T> settings, PlaceholderToken token) {
+        T value = settings.get(token.getKey());
+        return value != null ? value : settings.get(token.getIdentifier());
+    }
+}
@@ -0,0 +1,67 @@
+package cc.azuramc.azuraboard.render;
+
+import cc.azuramc.azuraboard.AzuraBoard;
+import lombok.Getter;
+import lombok.Setter;
+import org.bukkit.entity.Player;
+
+import java.util.Locale;
+
+/**
+ * A single PlaceholderAPI token found in a scoreboard line
+ * Holds the raw "%identifier_params%" text split into its parts
+ *
+ * @author an5w1r@163.com
+ */
+public final class PlaceholderToken {
+
+    /** Raw token text including the surrounding percent signs */
+    @Getter private final String raw;
+
+    /** Token text without the surrounding percent signs, e.g. "player_name" */
+    @Getter private final String key;
+
+    /** Expansion identifier (lower case), e.g. "player" */
+    @Getter private final String identifier;
+
+    /** Expansion parameters, e.g. "name" */
+    @Getter private final String params;
+
+    /** Expansion this token is bound to for direct dispatch */
+    @Getter @Setter private volatile ExpansionDispatcher.Binding binding;
+
+    /**
+     * Constructor for PlaceholderToken
+     *
+     * @param raw The raw token text including the surrounding percent signs
+     */
+    public PlaceholderToken(String raw) {
+        this.raw = raw;
+        this.key = raw.substring(1, raw.length() - 1);
+
+        int separator = key.indexOf('_');
+        if (separator < 0) {
+            this.identifier = key.toLowerCase(Locale.ROOT);
+            this.params = "";
+        } else {
+            this.identifier = key.substring(0, separator).toLowerCase(Locale.ROOT);
+            this.params = key.substring(separator + 1);
+        }
+    }
+
+    /**
+     * Resolve this token for a player
+     * The resolved value is colored, as placeholder output may contain color codes
+     *
+     * @param player The player to resolve the token for
+     * @return The colored value, or the colored raw token if it could not be resolved
+     */
+    public String resolve(Player player) {
+        return AzuraBoard.getInstance().getPlaceholderManager().resolve(player, this);
+    }
+
+    @Override
+    public String toString() {
+        return raw;
+    }
+}
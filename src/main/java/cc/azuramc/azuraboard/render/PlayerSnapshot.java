@@ -0,0 +1,45 @@
+package cc.azuramc.azuraboard.render;
+
+import lombok.Getter;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+/**
+ * Immutable copy of the player state used by built-in placeholders
+ * Captured on the thread owning the player, so the board can be rendered on any thread
+ * without touching the player afterwards
+ *
+ * @author an5w1r@163.com
+ */
+public final class PlayerSnapshot {
+
+    @Getter private final String name;
+    @Getter private final String displayName;
+    @Getter private final String world;
+    @Getter private final int blockX;
+    @Getter private final int blockY;
+    @Getter private final int blockZ;
+    @Getter private final int level;
+
+    private PlayerSnapshot(Player player) {
+        Location location = player.getLocation();
+        this.name = player.getName();
+        this.displayName = player.getDisplayName();
+        this.world = player.getWorld().getName();
+        this.blockX = location.getBlockX();
+        this.blockY = location.getBlockY();
+        this.blockZ = location.getBlockZ();
+        this.level = player.getLevel();
+    }
+
+    /**
+     * Capture the state of a player
+     * Must be called on the thread owning the player
+     *
+     * @param player The player
+     * @return The snapshot
+     */
+    public static PlayerSnapshot capture(Player player) {
+        return new PlayerSnapshot(player);
+    }
+}
@@ -0,0 +1,132 @@
+package cc.azuramc.azuraboard.render;
+
+import cc.azuramc.azuraboard.util.BoundedCache;
+import cc.azuramc.azuraboard.util.ChatColorUtil;
+import cc.azuramc.azuraboard.util.VersionUtil;
+import cc.azuramc.azuraboard.util.ViaVersionUtil;
+import org.bukkit.entity.Player;
+
+/**
+ * How a rendered board is sent to one class of client versions
+ * Boards are rendered once for the server's own version and converted for older clients.
+ * Each distinct converted title or line is computed once and shared by every player of the class.
+ *
+ * @author an5w1r@163.com
+ */
+public enum RenderVariant {
+
+    /** Clients below 1.13: legacy colors, titles up to 32 and lines up to 30 characters */
+    LEGACY(32, 30),
+
+    /** Clients from 1.13 to 1.15: legacy colors, no length limit */
+    NO_RGB(0, 0),
+
+    /** Clients from 1.16: sent as rendered */
+    MODERN(0, 0);
+
+    /** Maximum number of converted texts remembered per variant */
+    private static final int CACHE_SIZE = 1024;
+
+    /** Maximum title and line length, 0 for no limit */
+    private final int maxTitleLength;
+    private final int maxLineLength;
+
+    /** Cache of converted lines by rendered line, shared by the render threads */
+    private final BoundedCache<String, String> lines = new BoundedCache<>(CACHE_SIZE);
+
+    RenderVariant(int maxTitleLength, int maxLineLength) {
+        this.maxTitleLength = maxTitleLength;
+        this.maxLineLength = maxLineLength;
+    }
+
+    /**
+     * Get the variant a player's client is served with
+     * The client version is read from ViaVersion, without it every client is assumed to match the server.
+     * Clients newer than the server get the server's variant, as the server cannot send more than that.
+     *
+     * @param player The player
+     * @param downsample Whether older clients get downsampled lines, otherwise every client gets the server's variant
+     * @return The variant
+     */
+    public static RenderVariant of(Player player, boolean downsample) {
+        RenderVariant server = VersionUtil.isSupportsRgb ? MODERN
+                : VersionUtil.checkVersion(1, 13) ? NO_RGB
+                : LEGACY;
+
+        int protocol = downsample ? ViaVersionUtil.getProtocolVersion(player) : -1;
+        if (protocol < 0) {
+            return server;
+        }
+
+        RenderVariant client = protocol >= ViaVersionUtil.PROTOCOL_1_16 ? MODERN
+                : protocol >= ViaVersionUtil.PROTOCOL_1_13 ? NO_RGB
+                : LEGACY;
+        return client.ordinal() < server.ordinal() ? client : server;
+    }
+
+    /**
+     * Check if FastBoard has to keep lines within the legacy team prefix and suffix length
+     *
+     * @return true for legacy clients
+     */
+    public boolean hasLinesMaxLength() {
+        return this == LEGACY;
+    }
+
+    /**
+     * Convert a rendered title for this variant
+     *
+     * @param title The rendered title
+     * @return The title to send
+     */
+    public String title(String title) {
+        return this == MODERN ? title : ChatColorUtil.toLegacy(title, maxTitleLength);
+    }
+
+    /**
+     * Convert a rendered line for this variant
+     *
+     * @param line The rendered line
+     * @return The line to send
+     */
+    public String line(String line) {
+        if (this == MODERN || line == null) {
+            return line;
+        }
+
+        String converted = lines.get(line);
+        if (converted == null) {
+            converted = ChatColorUtil.toLegacy(line, maxLineLength);
+            lines.put(line, converted);
+        }
+        return converted;
+    }
+
+    /**
+     * Convert rendered lines for this variant
+     *
+     * @param rendered The rendered lines
+     * @return The lines to send, the same array for modern clients
+     */
+    public String[] lines(String[] rendered) {
+        if (this == MODERN) {
+            return rendered;
+        }
+
+        String[] converted = new String[rendered.length];
+        for (int i = 0; i < rendered.length; i++) {
+            converted[i] = line(rendered[i]);
+        }
+        return converted;
+    }
+
+    /**
+     * Forget every converted line
+     * Called when configuration is reloaded
+     */
+    public static void clearCaches() {
+        for (RenderVariant variant : values()) {
+            variant.lines.clear();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package cc.azuramc.azuraboard.render;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Table of the distinct placeholder tokens of a scoreboard
+ * Templates compiled against the same table share a slot for equal tokens,
+ * so a placeholder used in the title and in several lines is resolved only once
+ *
+ * @author an5w1r@163.com
+ */
+public final class TokenTable {
+
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final List<PlaceholderToken> tokens = new ArrayList<>();
+
+    /**
+     * Get the slot of a token, adding it to the table if it is new
+     *
+     * @param raw The raw token text including the surrounding percent signs
+     * @return The slot of the token
+     */
+    public int intern(String raw) {
+        Integer slot = slots.get(raw);
+        if (slot != null) {
+            return slot;
+        }
+
+        slot = tokens.size();
+        tokens.add(new PlaceholderToken(raw));
+        slots.put(raw, slot);
+        return slot;
+    }
+
+    /**
+     * Get the token in a slot
+     *
+     * @param slot The slot
+     * @return The token
+     */
+    public PlaceholderToken get(int slot) {
+        return tokens.get(slot);
+    }
+
+    public int size() {
+        return tokens.size();
+    }
+}
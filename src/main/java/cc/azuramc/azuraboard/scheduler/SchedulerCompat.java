@@ -1,5 +1,7 @@
 package cc.azuramc.azuraboard.scheduler;
 
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
 import org.bukkit.plugin.Plugin;
 
 /**
@@ -31,8 +33,9 @@ public interface SchedulerCompat {
      * @param plugin The plugin instance
      * @param task The task to run
      * @param delay The delay in ticks
+     * @return The created task, or null if it could not be scheduled
      */
-    void runTaskLater(Plugin plugin, Runnable task, long delay);
+    TaskHandle runTaskLater(Plugin plugin, Runnable task, long delay);
     
     /**
      * Run a repeating task on the main thread
@@ -41,14 +44,68 @@ public interface SchedulerCompat {
      * @param task The task to run
      * @param delay The initial delay in ticks
      * @param period The period in ticks
-     * @return The created task
+     * @return The created task, or null if it could not be scheduled
      */
-    Object runTaskTimer(Plugin plugin, Runnable task, long delay, long period);
-    
+    TaskHandle runTaskTimer(Plugin plugin, Runnable task, long delay, long period);
+
+    /**
+     * Run a task off the main thread
+     *
+     * @param plugin The plugin instance
+     * @param task The task to run
+     */
+    void runTaskAsync(Plugin plugin, Runnable task);
+
+    /**
+     * Run a repeating task off the main thread
+     *
+     * @param plugin The plugin instance
+     * @param task The task to run
+     * @param delay The initial delay in ticks
+     * @param period The period in ticks
+     * @return The created task, or null if it could not be scheduled
+     */
+    TaskHandle runTaskTimerAsync(Plugin plugin, Runnable task, long delay, long period);
+
+    /**
+     * Run a task on the thread owning an entity
+     * Does nothing if the entity was removed before the task could run
+     *
+     * @param plugin The plugin instance
+     * @param entity The entity
+     * @param task The task to run
+     */
+    void runEntityTask(Plugin plugin, Entity entity, Runnable task);
+
+    /**
+     * Run a repeating task on the thread owning an entity
+     * The task follows the entity across regions and stops when the entity is removed
+     *
+     * @param plugin The plugin instance
+     * @param entity The entity
+     * @param task The task to run
+     * @param delay The initial delay in ticks, at least 1
+     * @param period The period in ticks
+     * @return The created task, or null if the entity was already removed
+     */
+    TaskHandle runEntityTaskTimer(Plugin plugin, Entity entity, Runnable task, long delay, long period);
+
+    /**
+     * Run a task on the thread owning a region
+     *
+     * @param plugin The plugin instance
+     * @param world The world of the region
+     * @param chunkX The x coordinate of a chunk in the region
+     * @param chunkZ The z coordinate of a chunk in the region
+     * @param task The task to run
+     */
+    void runRegionTask(Plugin plugin, World world, int chunkX, int chunkZ, Runnable task);
+
     /**
-     * Cancel a task
+     * Check if the current thread owns an entity
      *
-     * @param task The task object
+     * @param entity The entity
+     * @return true if the entity may be accessed from the current thread
      */
-    void cancelTask(Object task);
-} 
\ No newline at end of file
+    boolean isOwnedByCurrentRegion(Entity entity);
+}
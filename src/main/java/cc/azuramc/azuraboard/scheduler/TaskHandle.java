@@ -0,0 +1,23 @@
+package cc.azuramc.azuraboard.scheduler;
+
+/**
+ * Handle of a scheduled task
+ * Wraps the platform task (BukkitTask or Folia ScheduledTask) so callers do not depend on either
+ *
+ * @author an5w1r@163.com
+ */
+public interface TaskHandle {
+
+    /**
+     * Cancel the task
+     * Does nothing if the task already finished or was cancelled
+     */
+    void cancel();
+
+    /**
+     * Check if the task was cancelled
+     *
+     * @return true if the task was cancelled
+     */
+    boolean isCancelled();
+}
@@ -1,8 +1,12 @@
 package cc.azuramc.azuraboard.scheduler.impl;
 
 import cc.azuramc.azuraboard.scheduler.SchedulerCompat;
+import cc.azuramc.azuraboard.scheduler.TaskHandle;
 import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
 import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
 
 /**
  * Standard Bukkit implementation for Java 8
@@ -24,25 +28,67 @@ public class BukkitCompatImpl implements SchedulerCompat {
     }
 
     @Override
-    public void runTaskLater(Plugin plugin, Runnable task, long delay) {
+    public TaskHandle runTaskLater(Plugin plugin, Runnable task, long delay) {
         // Use the synchronous scheduler in regular Bukkit/Spigot
-        Bukkit.getScheduler().runTaskLater(plugin, task, delay);
+        return wrap(Bukkit.getScheduler().runTaskLater(plugin, task, delay));
     }
 
     @Override
-    public Object runTaskTimer(Plugin plugin, Runnable task, long delay, long period) {
+    public TaskHandle runTaskTimer(Plugin plugin, Runnable task, long delay, long period) {
         // Use the synchronous scheduler in regular Bukkit/Spigot
-        return Bukkit.getScheduler().runTaskTimer(plugin, task, delay, period);
+        return wrap(Bukkit.getScheduler().runTaskTimer(plugin, task, delay, period));
     }
 
     @Override
-    public void cancelTask(Object task) {
-        if (task == null) {
-            return;
-        }
+    public void runTaskAsync(Plugin plugin, Runnable task) {
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, task);
+    }
+
+    @Override
+    public TaskHandle runTaskTimerAsync(Plugin plugin, Runnable task, long delay, long period) {
+        return wrap(Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, task, delay, period));
+    }
+
+    @Override
+    public void runEntityTask(Plugin plugin, Entity entity, Runnable task) {
+        // Entities are owned by the main thread in regular Bukkit/Spigot
+        Bukkit.getScheduler().runTask(plugin, task);
+    }
+
+    @Override
+    public TaskHandle runEntityTaskTimer(Plugin plugin, Entity entity, Runnable task, long delay, long period) {
+        // Entities are owned by the main thread in regular Bukkit/Spigot
+        return wrap(Bukkit.getScheduler().runTaskTimer(plugin, task, delay, period));
+    }
+
+    @Override
+    public void runRegionTask(Plugin plugin, World world, int chunkX, int chunkZ, Runnable task) {
+        // Regions are owned by the main thread in regular Bukkit/Spigot
+        Bukkit.getScheduler().runTask(plugin, task);
+    }
+
+    @Override
+    public boolean isOwnedByCurrentRegion(Entity entity) {
+        return Bukkit.isPrimaryThread();
+    }
+
+    /**
+     * Wrap a Bukkit task in a task handle
+     *
+     * @param task The Bukkit task
+     * @return The task handle
+     */
+    private static TaskHandle wrap(BukkitTask task) {
+        return new TaskHandle() {
+            @Override
+            public void cancel() {
+                task.cancel();
+            }
 
-        if (task instanceof org.bukkit.scheduler.BukkitTask) {
-            ((org.bukkit.scheduler.BukkitTask) task).cancel();
-        }
+            @Override
+            public boolean isCancelled() {
+                return task.isCancelled();
+            }
+        };
     }
-} 
\ No newline at end of file
+}
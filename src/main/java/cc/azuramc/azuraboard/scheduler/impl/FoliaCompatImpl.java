@@ -1,9 +1,14 @@
 package cc.azuramc.azuraboard.scheduler.impl;
 
 import cc.azuramc.azuraboard.scheduler.SchedulerCompat;
+import cc.azuramc.azuraboard.scheduler.TaskHandle;
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
 import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
 import org.bukkit.plugin.Plugin;
 
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 /**
@@ -40,26 +45,26 @@ public class FoliaCompatImpl implements SchedulerCompat {
     }
 
     @Override
-    public void runTaskLater(Plugin plugin, Runnable task, long delay) {
+    public TaskHandle runTaskLater(Plugin plugin, Runnable task, long delay) {
         try {
             // Use the global region scheduler in Folia
-            Bukkit.getGlobalRegionScheduler().runDelayed(plugin, (s) -> task.run(), delay);
+            return wrap(Bukkit.getGlobalRegionScheduler().runDelayed(plugin, (s) -> task.run(), Math.max(1, delay)));
         } catch (Exception e) {
             plugin.getLogger().log(Level.SEVERE, "Failed to execute delayed task in Folia", e);
+            return null;
         }
     }
 
     @Override
-    public Object runTaskTimer(Plugin plugin, Runnable task, long delay, long period) {
+    public TaskHandle runTaskTimer(Plugin plugin, Runnable task, long delay, long period) {
         try {
-            // Use the global region scheduler in Folia
-            return Bukkit.getGlobalRegionScheduler().runAtFixedRate(
+            // Use the global region scheduler in Folia, delay and period are in ticks
+            return wrap(Bukkit.getGlobalRegionScheduler().runAtFixedRate(
                 plugin,
                 (s) -> task.run(),
-                // Convert to milliseconds
-                delay * 50,
-                period * 50
-            );
+                Math.max(1, delay),
+                period
+            ));
         } catch (Exception e) {
             plugin.getLogger().log(Level.SEVERE, "Failed to execute repeating task in Folia", e);
             return null;
@@ -67,13 +72,94 @@ public class FoliaCompatImpl implements SchedulerCompat {
     }
 
     @Override
-    public void cancelTask(Object task) {
-        if (task == null) {
-            return;
+    public void runTaskAsync(Plugin plugin, Runnable task) {
+        try {
+            Bukkit.getAsyncScheduler().runNow(plugin, (s) -> task.run());
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to execute async task in Folia", e);
+        }
+    }
+
+    @Override
+    public TaskHandle runTaskTimerAsync(Plugin plugin, Runnable task, long delay, long period) {
+        try {
+            // The async scheduler works in wall-clock time, convert ticks to milliseconds
+            return wrap(Bukkit.getAsyncScheduler().runAtFixedRate(
+                plugin,
+                (s) -> task.run(),
+                Math.max(1, delay) * 50,
+                period * 50,
+                TimeUnit.MILLISECONDS
+            ));
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to execute repeating async task in Folia", e);
+            return null;
         }
+    }
 
-        if (task instanceof io.papermc.paper.threadedregions.scheduler.ScheduledTask) {
-            ((io.papermc.paper.threadedregions.scheduler.ScheduledTask) task).cancel();
+    @Override
+    public void runEntityTask(Plugin plugin, Entity entity, Runnable task) {
+        try {
+            // Use the entity scheduler, the task runs on the region owning the entity
+            entity.getScheduler().run(plugin, (s) -> task.run(), null);
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to execute entity task in Folia", e);
         }
     }
-} 
\ No newline at end of file
+
+    @Override
+    public TaskHandle runEntityTaskTimer(Plugin plugin, Entity entity, Runnable task, long delay, long period) {
+        try {
+            // Use the entity scheduler, the task follows the entity across regions
+            return wrap(entity.getScheduler().runAtFixedRate(
+                plugin,
+                (s) -> task.run(),
+                null,
+                Math.max(1, delay),
+                period
+            ));
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to execute repeating entity task in Folia", e);
+            return null;
+        }
+    }
+
+    @Override
+    public void runRegionTask(Plugin plugin, World world, int chunkX, int chunkZ, Runnable task) {
+        try {
+            // Use the region scheduler, the task runs on the region owning the chunk
+            Bukkit.getRegionScheduler().execute(plugin, world, chunkX, chunkZ, task);
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to execute region task in Folia", e);
+        }
+    }
+
+    @Override
+    public boolean isOwnedByCurrentRegion(Entity entity) {
+        return Bukkit.isOwnedByCurrentRegion(entity);
+    }
+
+    /**
+     * Wrap a Folia task in a task handle
+     *
+     * @param task The Folia task, null if the entity was already removed
+     * @return The task handle, or null
+     */
+    private static TaskHandle wrap(ScheduledTask task) {
+        if (task == null) {
+            return null;
+        }
+
+        return new TaskHandle() {
+            @Override
+            public void cancel() {
+                task.cancel();
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return task.isCancelled();
+            }
+        };
+    }
+}
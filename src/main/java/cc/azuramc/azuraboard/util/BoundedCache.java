@@ -0,0 +1,151 @@
+package cc.azuramc.azuraboard.util;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Concurrent cache with approximate least recently used eviction
+ * Reads take no lock: an entry only records the generation it was last read in.
+ * Once the cache grows past its maximum size, one writer evicts the least recently read quarter of the entries,
+ * so eviction is amortized over many writes and never blocks readers
+ *
+ * @param <K> The key type
+ * @param <V> The value type
+ * @author an5w1r@163.com
+ */
+public final class BoundedCache<K, V> {
+
+    private final ConcurrentHashMap<K, Node<V>> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    /** Advanced on every write, entries read since the last write share a generation */
+    private final AtomicLong generation = new AtomicLong();
+
+    /** Held by the writer evicting entries */
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    /**
+     * Constructor for BoundedCache
+     *
+     * @param maxSize The maximum number of entries
+     */
+    public BoundedCache(int maxSize) {
+        this.maxSize = Math.max(1, maxSize);
+    }
+
+    /**
+     * Get a cached value
+     *
+     * @param key The key
+     * @return The value, or null if there is none
+     */
+    public V get(K key) {
+        Node<V> node = entries.get(key);
+        if (node == null) {
+            return null;
+        }
+
+        long current = generation.get();
+        if (node.lastUsed != current) {
+            node.lastUsed = current;
+        }
+        return node.value;
+    }
+
+    /**
+     * Cache a value, evicting the least recently read entries if the cache is full
+     *
+     * @param key The key
+     * @param value The value
+     */
+    public void put(K key, V value) {
+        entries.put(key, new Node<>(value, generation.incrementAndGet()));
+
+        if (entries.size() > maxSize && evicting.compareAndSet(false, true)) {
+            try {
+                evict();
+            } finally {
+                evicting.set(false);
+            }
+        }
+    }
+
+    /**
+     * Remove a cached value
+     *
+     * @param key The key
+     */
+    public void remove(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Remove every value whose key matches a filter
+     *
+     * @param filter The key filter
+     */
+    public void removeIf(Predicate<K> filter) {
+        entries.keySet().removeIf(filter);
+    }
+
+    /**
+     * Remove every cached value
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Shrink the cache to three quarters of its maximum size, dropping the least recently read entries
+     */
+    private void evict() {
+        long[] stamps = new long[entries.size()];
+        int count = 0;
+        for (Node<V> node : entries.values()) {
+            if (count == stamps.length) {
+                break;
+            }
+            stamps[count++] = node.lastUsed;
+        }
+
+        int excess = count - maxSize * 3 / 4;
+        if (excess <= 0) {
+            return;
+        }
+
+        Arrays.sort(stamps, 0, count);
+        long threshold = stamps[excess - 1];
+
+        Iterator<Map.Entry<K, Node<V>>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext() && excess > 0) {
+            if (iterator.next().getValue().lastUsed <= threshold) {
+                iterator.remove();
+                excess--;
+            }
+        }
+    }
+
+    /**
+     * Cached value with the generation it was last read in
+     *
+     * @param <V> The value type
+     */
+    private static final class Node<V> {
+        private final V value;
+        private volatile long lastUsed;
+
+        Node(V value, long lastUsed) {
+            this.value = value;
+            this.lastUsed = lastUsed;
+        }
+    }
+}
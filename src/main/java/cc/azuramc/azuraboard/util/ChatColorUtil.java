@@ -7,8 +7,7 @@ import org.bukkit.entity.Player;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Chat Color Utility Class for AzuraBoard
@@ -18,61 +17,449 @@ import java.util.regex.Pattern;
  */
 public final class ChatColorUtil {
 
-    private static final Pattern HEX_PATTERN = Pattern.compile("&#([A-Fa-f0-9]{6})");
+    /** Color and format codes accepted after '&', as in {@link ChatColor#translateAlternateColorCodes} */
+    private static final String COLOR_CODES = "0123456789AaBbCcDdEeFfKkLlMmNnOoRrXx";
 
-    private static final Pattern HEX_PATTERN_2 = Pattern.compile("\\{#([A-Fa-f0-9]{6})}");
+    /** Legacy color codes and their RGB values */
+    private static final char[] LEGACY_CODES = "0123456789abcdef".toCharArray();
+    private static final int[] LEGACY_RGB = {
+            0x000000, 0x0000AA, 0x00AA00, 0x00AAAA, 0xAA0000, 0xAA00AA, 0xFFAA00, 0xAAAAAA,
+            0x555555, 0x5555FF, 0x55FF55, 0x55FFFF, 0xFF5555, 0xFF55FF, 0xFFFF55, 0xFFFFFF
+    };
 
+    /** Bits kept per channel when looking up the nearest legacy color */
+    private static final int LEGACY_LOOKUP_BITS = 5;
+
+    /** Nearest legacy color code of every quantized RGB color, indexed by the kept bits of red, green and blue */
+    private static final char[] LEGACY_LOOKUP = buildLegacyLookup();
+
+    /** Reusable buffer for {@link #color(String)}, one per thread */
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(64));
+
+    /** Cache of translated strings by raw string, shared by the render threads, null if disabled */
+    private static volatile BoundedCache<String, String> memo = new BoundedCache<>(2048);
+
+    private static final LongAdder MEMO_HITS = new LongAdder();
+    private static final LongAdder MEMO_MISSES = new LongAdder();
 
     /**
-     * Convert RGB hex color codes to Minecraft supported format
+     * Set the maximum number of cached translations
+     * The cache and its counters are cleared
      *
-     * @param message The message containing hex color codes
-     * @return The converted message
+     * @param maxSize The maximum number of cached translations, 0 disables the cache
      */
-    private static String translateHexColorCodes(String message) {
-        if (message == null) {
-            return "";
+    public static void setMemoSize(int maxSize) {
+        memo = maxSize > 0 ? new BoundedCache<>(maxSize) : null;
+        MEMO_HITS.reset();
+        MEMO_MISSES.reset();
+    }
+
+    /**
+     * Get the number of translations served from the cache
+     *
+     * @return The number of cache hits
+     */
+    public static long getMemoHits() {
+        return MEMO_HITS.sum();
+    }
+
+    /**
+     * Get the number of translations that had to be computed
+     *
+     * @return The number of cache misses
+     */
+    public static long getMemoMisses() {
+        return MEMO_MISSES.sum();
+    }
+
+    /**
+     * Get the number of cached translations
+     *
+     * @return The cache size
+     */
+    public static int getMemoSize() {
+        BoundedCache<String, String> memo = ChatColorUtil.memo;
+        return memo == null ? 0 : memo.size();
+    }
+
+    /**
+     * Translate '&' color codes and RGB hex color codes in one pass
+     * &#RRGGBB and {#RRGGBB} are converted to the Minecraft format (§x§R§R§G§G§B§B) if the server supports RGB,
+     * '&' followed by a color or format code is converted to '§' and the lowercase code
+     *
+     * @param message The message to translate
+     * @param out The builder to append the translated message to
+     */
+    private static void translateColorCodes(String message, StringBuilder out) {
+        boolean rgb = isRgbSupported();
+        int length = message.length();
+
+        for (int i = 0; i < length; i++) {
+            char c = message.charAt(i);
+
+            if (c == '&' && i + 1 < length) {
+                char code = message.charAt(i + 1);
+
+                // &#RRGGBB
+                if (rgb && code == '#' && isHex(message, i + 2)) {
+                    appendHex(message, i + 2, out);
+                    i += 7;
+                    continue;
+                }
+
+                // &a, &l, ...
+                if (COLOR_CODES.indexOf(code) > -1) {
+                    out.append(ChatColor.COLOR_CHAR).append(Character.toLowerCase(code));
+                    i++;
+                    continue;
+                }
+            } else if (c == '{' && rgb && i + 8 < length && message.charAt(i + 1) == '#'
+                    && message.charAt(i + 8) == '}' && isHex(message, i + 2)) {
+                // {#RRGGBB}
+                appendHex(message, i + 2, out);
+                i += 8;
+                continue;
+            }
+
+            out.append(c);
+        }
+    }
+
+    /**
+     * Check if six hex digits start at an index
+     *
+     * @param message The message
+     * @param start The index of the first digit
+     * @return true if the six characters from start are hex digits
+     */
+    private static boolean isHex(String message, int start) {
+        if (start + 6 > message.length()) {
+            return false;
         }
 
-        // Check if server supports RGB colors and if it's enabled in config
+        for (int i = start; i < start + 6; i++) {
+            if (Character.digit(message.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Append six hex digits in the Minecraft RGB format
+     *
+     * @param message The message
+     * @param start The index of the first digit
+     * @param out The builder to append to
+     */
+    private static void appendHex(String message, int start, StringBuilder out) {
+        out.append(ChatColor.COLOR_CHAR).append('x');
+        for (int i = start; i < start + 6; i++) {
+            out.append(ChatColor.COLOR_CHAR).append(message.charAt(i));
+        }
+    }
+
+    /**
+     * Get the length of the color code starting at an index
+     * Recognizes '&' and '§' followed by a color or format code, &#RRGGBB and {#RRGGBB}
+     *
+     * @param text The text
+     * @param index The index
+     * @return The length of the code, or 0 if no code starts at the index
+     */
+    static int codeLength(String text, int index) {
+        char c = text.charAt(index);
+        if (index + 1 >= text.length()) {
+            return 0;
+        }
+
+        char code = text.charAt(index + 1);
+        if (c == '&' && code == '#' && isHex(text, index + 2)) {
+            return 8;
+        }
+        if ((c == '&' || c == ChatColor.COLOR_CHAR) && COLOR_CODES.indexOf(code) > -1) {
+            return 2;
+        }
+        if (c == '{' && code == '#' && index + 8 < text.length() && text.charAt(index + 8) == '}'
+                && isHex(text, index + 2)) {
+            return 9;
+        }
+        return 0;
+    }
+
+    /**
+     * Count the characters of a text that are not part of a color code
+     *
+     * @param text The text
+     * @return The number of visible characters
+     */
+    public static int visibleLength(String text) {
+        int visible = 0;
+        for (int i = 0; i < text.length(); i++) {
+            int skip = codeLength(text, i);
+            if (skip > 0) {
+                i += skip - 1;
+            } else {
+                visible++;
+            }
+        }
+        return visible;
+    }
+
+    /**
+     * Get the Minecraft color code of an RGB color
+     *
+     * @param rgb The color as RGB
+     * @return The color code (§x§R§R§G§G§B§B), or an empty string if the server does not support RGB
+     */
+    public static String hexColorCode(int rgb) {
         if (!isRgbSupported()) {
-            return message;
+            return "";
+        }
+
+        StringBuilder code = new StringBuilder(14);
+        code.append(ChatColor.COLOR_CHAR).append('x');
+        for (int shift = 20; shift >= 0; shift -= 4) {
+            code.append(ChatColor.COLOR_CHAR).append(Character.forDigit((rgb >> shift) & 0xF, 16));
+        }
+        return code.toString();
+    }
+
+    /**
+     * Append colored text with a precomputed color ramp, used for placeholder output inside a gradient
+     * The ramp is stretched over the visible characters of the text, so the text spans the whole ramp
+     * whatever its length. Color codes already in the text are dropped.
+     *
+     * @param text The colored text
+     * @param codes The color codes of the ramp, one per character position
+     * @param formats The format codes to repeat after every color
+     * @param out The builder to append to
+     */
+    public static void appendRamped(String text, String[] codes, String formats, StringBuilder out) {
+        int visible = visibleLength(text);
+        int position = 0;
+        String lastCode = null;
+
+        for (int i = 0; i < text.length(); i++) {
+            int skip = codeLength(text, i);
+            if (skip > 0) {
+                i += skip - 1;
+                continue;
+            }
+
+            char c = text.charAt(i);
+            String code = codes[(int) ((long) position++ * codes.length / visible)];
+            if (c != ' ' && !code.equals(lastCode)) {
+                out.append(code).append(formats);
+                lastCode = code;
+            }
+            out.append(c);
         }
+    }
+
+    /**
+     * Get the legacy color closest to an RGB color
+     * Looked up in a precomputed table of quantized colors
+     *
+     * @param rgb The color as RGB
+     * @return The legacy color code
+     */
+    public static char nearestLegacyColor(int rgb) {
+        int shift = 8 - LEGACY_LOOKUP_BITS;
+        int red = (rgb >> 16 & 0xFF) >> shift;
+        int green = (rgb >> 8 & 0xFF) >> shift;
+        int blue = (rgb & 0xFF) >> shift;
+        return LEGACY_LOOKUP[(red << LEGACY_LOOKUP_BITS | green) << LEGACY_LOOKUP_BITS | blue];
+    }
+
+    /**
+     * Build the nearest legacy color table, using the center of every quantized color
+     *
+     * @return The table
+     */
+    private static char[] buildLegacyLookup() {
+        int levels = 1 << LEGACY_LOOKUP_BITS;
+        int shift = 8 - LEGACY_LOOKUP_BITS;
+        int center = 1 << (shift - 1);
+        char[] lookup = new char[levels * levels * levels];
+
+        for (int red = 0; red < levels; red++) {
+            for (int green = 0; green < levels; green++) {
+                for (int blue = 0; blue < levels; blue++) {
+                    int rgb = (red << shift | center) << 16 | (green << shift | center) << 8 | (blue << shift | center);
+                    lookup[(red * levels + green) * levels + blue] = searchLegacyColor(rgb);
+                }
+            }
+        }
+        return lookup;
+    }
+
+    /**
+     * Search the legacy color closest to an RGB color
+     *
+     * @param rgb The color as RGB
+     * @return The legacy color code
+     */
+    private static char searchLegacyColor(int rgb) {
+        int red = (rgb >> 16) & 0xFF;
+        int green = (rgb >> 8) & 0xFF;
+        int blue = rgb & 0xFF;
+
+        char nearest = 'f';
+        int nearestDistance = Integer.MAX_VALUE;
+        for (int i = 0; i < LEGACY_RGB.length; i++) {
+            int dr = red - ((LEGACY_RGB[i] >> 16) & 0xFF);
+            int dg = green - ((LEGACY_RGB[i] >> 8) & 0xFF);
+            int db = blue - (LEGACY_RGB[i] & 0xFF);
+            int distance = dr * dr + dg * dg + db * db;
+            if (distance < nearestDistance) {
+                nearest = LEGACY_CODES[i];
+                nearestDistance = distance;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Convert colored text for clients without RGB support
+     * RGB colors are replaced by the closest legacy color, and color codes that do not change the style
+     * of the following text are dropped, so gradients collapse into a few legacy colors.
+     * The text is cut to the maximum length without splitting a color code.
+     *
+     * @param text The colored text
+     * @param maxLength The maximum length, 0 for no limit
+     * @return The converted text
+     */
+    public static String toLegacy(String text, int maxLength) {
+        StringBuilder out = new StringBuilder(Math.min(text.length(), maxLength > 0 ? maxLength : text.length()));
+        StringBuilder formats = new StringBuilder();
+        StringBuilder pendingFormats = new StringBuilder();
+        StringBuilder codes = new StringBuilder();
+        char color = 0;
+        char pendingColor = 0;
+        boolean pending = false;
+        int length = text.length();
+
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+
+            if (c == ChatColor.COLOR_CHAR) {
+                char code = i + 1 < length ? Character.toLowerCase(text.charAt(i + 1)) : 0;
+                int rgb = code == 'x' ? parseHexColor(text, i + 2) : -1;
+
+                if (rgb >= 0) {
+                    pendingColor = nearestLegacyColor(rgb);
+                    pendingFormats.setLength(0);
+                    pending = true;
+                    i += 12;
+                } else if (code == 'r' || Character.digit(code, 16) >= 0) {
+                    pendingColor = code;
+                    pendingFormats.setLength(0);
+                    pending = true;
+                } else if (code >= 'k' && code <= 'o') {
+                    pendingFormats.append(code);
+                }
+                // Codes the client does not know, and a '§' ending the text, are dropped
+                i++;
+                continue;
+            }
 
-        // &#RRGGBB
-        Matcher matcher = HEX_PATTERN.matcher(message);
-        StringBuffer buffer = new StringBuffer();
+            // Codes are only written together with the visible character they apply to,
+            // so the text never ends with a code and the limit always covers the codes
+            codes.setLength(0);
+            if (pending && (pendingColor != color || !contentEquals(pendingFormats, formats))) {
+                codes.append(ChatColor.COLOR_CHAR).append(pendingColor);
+                appendFormats(pendingFormats, codes);
+            } else if (!pending) {
+                appendFormats(pendingFormats, codes);
+            }
 
-        while (matcher.find()) {
-            String hexCode = matcher.group(1);
+            if (maxLength > 0 && out.length() + codes.length() + 1 > maxLength) {
+                break;
+            }
 
-            StringBuilder replacement = new StringBuilder("§x");
-            for (char c : hexCode.toCharArray()) {
-                replacement.append("§").append(c);
+            if (pending) {
+                color = pendingColor;
+                formats.setLength(0);
             }
+            formats.append(pendingFormats);
+            pendingFormats.setLength(0);
+            pending = false;
 
-            matcher.appendReplacement(buffer, replacement.toString());
+            out.append(codes).append(c);
         }
-        matcher.appendTail(buffer);
 
-        // {#RRGGBB}
-        message = buffer.toString();
-        matcher = HEX_PATTERN_2.matcher(message);
-        buffer = new StringBuffer();
+        return out.toString();
+    }
 
-        while (matcher.find()) {
-            String hexCode = matcher.group(1);
+    /**
+     * Append format codes in the Minecraft format
+     *
+     * @param formats The format code characters
+     * @param out The builder to append to
+     */
+    private static void appendFormats(CharSequence formats, StringBuilder out) {
+        for (int i = 0; i < formats.length(); i++) {
+            out.append(ChatColor.COLOR_CHAR).append(formats.charAt(i));
+        }
+    }
 
-            StringBuilder replacement = new StringBuilder("§x");
-            for (char c : hexCode.toCharArray()) {
-                replacement.append("§").append(c);
+    /**
+     * Parse the six digits of a color in the Minecraft RGB format (§R§R§G§G§B§B)
+     *
+     * @param text The text
+     * @param start The index of the first '§'
+     * @return The color as RGB, or -1 if no color starts at the index
+     */
+    private static int parseHexColor(String text, int start) {
+        if (start + 12 > text.length()) {
+            return -1;
+        }
+
+        int rgb = 0;
+        for (int i = start; i < start + 12; i += 2) {
+            int digit = Character.digit(text.charAt(i + 1), 16);
+            if (text.charAt(i) != ChatColor.COLOR_CHAR || digit < 0) {
+                return -1;
             }
+            rgb = rgb << 4 | digit;
+        }
+        return rgb;
+    }
 
-            matcher.appendReplacement(buffer, replacement.toString());
+    /**
+     * Compare two char sequences without creating strings
+     *
+     * @param a The first sequence
+     * @param b The second sequence
+     * @return true if both have the same characters
+     */
+    private static boolean contentEquals(CharSequence a, CharSequence b) {
+        if (a.length() != b.length()) {
+            return false;
         }
-        matcher.appendTail(buffer);
+        for (int i = 0; i < a.length(); i++) {
+            if (a.charAt(i) != b.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
 
-        return buffer.toString();
+    /**
+     * Translate a message with gradient and rainbow spans
+     *
+     * @param message The message to translate
+     * @param out The builder to append the translated message to
+     */
+    private static void translateSpans(String message, StringBuilder out) {
+        for (ColorRamp.Span span : ColorRamp.split(message)) {
+            if (span.getRamp() == null) {
+                translateColorCodes(span.getText(), out);
+            } else {
+                new ColorRamp.Writer(span.getRamp(), visibleLength(span.getText())).appendText(span.getText(), out);
+            }
+        }
     }
 
     /**
@@ -88,7 +475,9 @@ public final class ChatColorUtil {
     /**
      * Convert color codes in a string
      * Converts '&' color codes to the Minecraft color code format
-     * Supports RGB colors in format &#RRGGBB or {#RRGGBB} for Minecraft 1.16+
+     * Supports RGB colors in format &#RRGGBB or {#RRGGBB} for Minecraft 1.16+,
+     * and &lt;gradient:#RRGGBB:#RRGGBB&gt;text&lt;/gradient&gt; or &lt;rainbow&gt;text&lt;/rainbow&gt; spans
+     * Translations are cached, as resolved placeholder values mostly repeat from one update to the next
      *
      * @param string The string to colorize
      * @return The colorized string, or empty string if input is null
@@ -98,9 +487,34 @@ public final class ChatColorUtil {
             return "";
         }
 
-        String translatedHex = translateHexColorCodes(string);
+        // Nothing to translate, return the string itself
+        if (string.indexOf('&') < 0 && string.indexOf('{') < 0 && string.indexOf('<') < 0) {
+            return string;
+        }
 
-        return ChatColor.translateAlternateColorCodes('&', translatedHex);
+        BoundedCache<String, String> memo = ChatColorUtil.memo;
+        if (memo != null) {
+            String colored = memo.get(string);
+            if (colored != null) {
+                MEMO_HITS.increment();
+                return colored;
+            }
+            MEMO_MISSES.increment();
+        }
+
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        if (string.indexOf('<') < 0) {
+            translateColorCodes(string, buffer);
+        } else {
+            translateSpans(string, buffer);
+        }
+        String colored = buffer.toString();
+
+        if (memo != null) {
+            memo.put(string, colored);
+        }
+        return colored;
     }
 
     /**
@@ -170,7 +584,7 @@ public final class ChatColorUtil {
     public static List<String> parse(Player player, List<String> lines) {
         List<String> toReturn = new ArrayList<>();
         for (String line : lines) {
-            toReturn.add(parse(player, color(line)));
+            toReturn.add(parse(player, line));
         }
 
         return toReturn;
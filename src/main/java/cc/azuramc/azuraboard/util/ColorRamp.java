@@ -0,0 +1,269 @@
+package cc.azuramc.azuraboard.util;
+
+import lombok.Getter;
+import org.bukkit.ChatColor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Color ramp of a gradient or rainbow span
+ * Spans are written as &lt;gradient:#RRGGBB:#RRGGBB&gt;text&lt;/gradient&gt; (two or more stops)
+ * or &lt;rainbow&gt;text&lt;/rainbow&gt;, and are expanded to one color per character when the text is compiled
+ *
+ * @author an5w1r@163.com
+ */
+public final class ColorRamp {
+
+    private static final String GRADIENT_OPEN = "<gradient:";
+    private static final String GRADIENT_CLOSE = "</gradient>";
+    private static final String RAINBOW_OPEN = "<rainbow>";
+    private static final String RAINBOW_CLOSE = "</rainbow>";
+
+    /** Gradient stops as RGB, null for a rainbow */
+    private final int[] stops;
+
+    private ColorRamp(int[] stops) {
+        this.stops = stops;
+    }
+
+    /**
+     * Get the color at a point of the ramp
+     *
+     * @param t The point, from 0 (start) to 1 (end)
+     * @return The color as RGB
+     */
+    public int colorAt(double t) {
+        if (stops == null) {
+            // Red to magenta, so the end does not wrap around to the start color
+            return hsbToRgb(t * 5 / 6);
+        }
+
+        double scaled = t * (stops.length - 1);
+        int index = Math.min((int) scaled, stops.length - 2);
+        double fraction = scaled - index;
+        int from = stops[index];
+        int to = stops[index + 1];
+
+        return lerp(from >> 16, to >> 16, fraction) << 16
+                | lerp(from >> 8, to >> 8, fraction) << 8
+                | lerp(from, to, fraction);
+    }
+
+    /**
+     * Get the Minecraft color code of a character position
+     *
+     * @param position The character position within the span
+     * @param width The number of character positions of the span
+     * @return The color code
+     */
+    public String codeAt(int position, int width) {
+        double t = width <= 1 ? 0 : (double) position / (width - 1);
+        return ChatColorUtil.hexColorCode(colorAt(t));
+    }
+
+    private static int lerp(int from, int to, double fraction) {
+        from &= 0xFF;
+        to &= 0xFF;
+        return (int) Math.round(from + (to - from) * fraction);
+    }
+
+    private static int hsbToRgb(double hue) {
+        double h = (hue - Math.floor(hue)) * 6;
+        int sector = (int) h;
+        double f = h - sector;
+        int q = (int) Math.round(255 * (1 - f));
+        int t = (int) Math.round(255 * f);
+
+        switch (sector) {
+            case 0: return 0xFF0000 | t << 8;
+            case 1: return q << 16 | 0x00FF00;
+            case 2: return 0x00FF00 | t;
+            case 3: return q << 8 | 0x0000FF;
+            case 4: return t << 16 | 0x0000FF;
+            default: return 0xFF0000 | q;
+        }
+    }
+
+    /**
+     * Split text into plain parts and gradient or rainbow spans
+     * Malformed tags are kept as plain text, a span without closing tag runs to the end of the text
+     *
+     * @param text The text
+     * @return The parts in text order
+     */
+    public static List<Span> split(String text) {
+        List<Span> spans = new ArrayList<>();
+        int plainStart = 0;
+        int i = text.indexOf('<');
+
+        while (i >= 0) {
+            ColorRamp ramp = null;
+            int contentStart = -1;
+            String close = null;
+
+            if (text.startsWith(RAINBOW_OPEN, i)) {
+                ramp = new ColorRamp(null);
+                contentStart = i + RAINBOW_OPEN.length();
+                close = RAINBOW_CLOSE;
+            } else if (text.startsWith(GRADIENT_OPEN, i)) {
+                int end = text.indexOf('>', i);
+                int[] parsed = end < 0 ? null : parseStops(text.substring(i + GRADIENT_OPEN.length(), end));
+                if (parsed != null) {
+                    ramp = new ColorRamp(parsed);
+                    contentStart = end + 1;
+                    close = GRADIENT_CLOSE;
+                }
+            }
+
+            if (ramp == null) {
+                i = text.indexOf('<', i + 1);
+                continue;
+            }
+
+            int contentEnd = text.indexOf(close, contentStart);
+            int next = contentEnd < 0 ? text.length() : contentEnd + close.length();
+            if (contentEnd < 0) {
+                contentEnd = text.length();
+            }
+
+            if (i > plainStart) {
+                spans.add(new Span(text.substring(plainStart, i), null));
+            }
+            spans.add(new Span(text.substring(contentStart, contentEnd), ramp));
+
+            plainStart = next;
+            i = text.indexOf('<', next);
+        }
+
+        if (plainStart < text.length() || spans.isEmpty()) {
+            spans.add(new Span(text.substring(plainStart), null));
+        }
+
+        return spans;
+    }
+
+    /**
+     * Parse the stops of a gradient tag
+     *
+     * @param params The tag parameters, e.g. #FF0000:#0000FF
+     * @return The stops as RGB, or null if the parameters are malformed
+     */
+    private static int[] parseStops(String params) {
+        String[] parts = params.split(":");
+        if (parts.length < 2) {
+            return null;
+        }
+
+        int[] stops = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            String part = parts[i].trim();
+            if (part.length() != 7 || part.charAt(0) != '#') {
+                return null;
+            }
+
+            try {
+                stops[i] = Integer.parseInt(part.substring(1), 16);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return stops;
+    }
+
+    /**
+     * Part of a text, either plain or colored by a ramp
+     */
+    public static final class Span {
+        /** The text of the part, without the span tags */
+        @Getter private final String text;
+
+        /** The ramp coloring the part, null for plain text */
+        @Getter private final ColorRamp ramp;
+
+        Span(String text, ColorRamp ramp) {
+            this.text = text;
+            this.ramp = ramp;
+        }
+    }
+
+    /**
+     * Writes the characters of a span with their ramp colors
+     * Color codes in the span are dropped, format codes (bold, italic, ...) are kept and repeated after every color
+     */
+    public static final class Writer {
+        private final ColorRamp ramp;
+        private final int width;
+        private final StringBuilder formats = new StringBuilder();
+        private int position;
+        private String lastCode;
+
+        /**
+         * Constructor for Writer
+         *
+         * @param ramp The ramp of the span
+         * @param width The number of character positions of the span
+         */
+        public Writer(ColorRamp ramp, int width) {
+            this.ramp = ramp;
+            this.width = width;
+        }
+
+        /**
+         * Append literal text of the span
+         *
+         * @param text The literal text, with '&' codes not yet translated
+         * @param out The builder to append the colored text to
+         */
+        public void appendText(String text, StringBuilder out) {
+            for (int i = 0; i < text.length(); i++) {
+                int skip = ChatColorUtil.codeLength(text, i);
+                if (skip > 0) {
+                    char code = Character.toLowerCase(text.charAt(i + 1));
+                    if (code == 'r') {
+                        formats.setLength(0);
+                        lastCode = null;
+                    } else if (code >= 'k' && code <= 'o') {
+                        formats.append(ChatColor.COLOR_CHAR).append(code);
+                        lastCode = null;
+                    }
+                    i += skip - 1;
+                    continue;
+                }
+
+                char c = text.charAt(i);
+                String colorCode = ramp.codeAt(position++, width);
+                if (c != ' ' && !colorCode.equals(lastCode)) {
+                    out.append(colorCode).append(formats);
+                    lastCode = colorCode;
+                }
+                out.append(c);
+            }
+        }
+
+        /**
+         * Take the color codes of the next character positions, used for placeholder output
+         *
+         * @param count The number of positions
+         * @return The color codes, one per position
+         */
+        public String[] takeCodes(int count) {
+            String[] codes = new String[Math.max(1, count)];
+            for (int i = 0; i < codes.length; i++) {
+                codes[i] = ramp.codeAt(position++, width);
+            }
+            // The text after the placeholder always starts with its own color
+            lastCode = null;
+            return codes;
+        }
+
+        /**
+         * Get the format codes active at the current position
+         *
+         * @return The format codes
+         */
+        public String getFormats() {
+            return formats.toString();
+        }
+    }
+}
@@ -2,6 +2,9 @@ package cc.azuramc.azuraboard.util;
 
 import cc.azuramc.azuraboard.scheduler.SchedulerCompat;
 import cc.azuramc.azuraboard.scheduler.SchedulerFactory;
+import cc.azuramc.azuraboard.scheduler.TaskHandle;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
 import org.bukkit.plugin.Plugin;
 
 /**
@@ -41,9 +44,10 @@ public class SchedulerUtil {
      * @param plugin The plugin instance
      * @param task The task to run
      * @param delay The delay in ticks
+     * @return The created task, or null if it could not be scheduled
      */
-    public static void runTaskLater(Plugin plugin, Runnable task, long delay) {
-        scheduler.runTaskLater(plugin, task, delay);
+    public static TaskHandle runTaskLater(Plugin plugin, Runnable task, long delay) {
+        return scheduler.runTaskLater(plugin, task, delay);
     }
 
     /**
@@ -53,18 +57,91 @@ public class SchedulerUtil {
      * @param task The task to run
      * @param delay The initial delay in ticks
      * @param period The period in ticks
-     * @return The created task
+     * @return The created task, or null if it could not be scheduled
      */
-    public static Object runTaskTimer(Plugin plugin, Runnable task, long delay, long period) {
+    public static TaskHandle runTaskTimer(Plugin plugin, Runnable task, long delay, long period) {
         return scheduler.runTaskTimer(plugin, task, delay, period);
     }
 
+    /**
+     * Run a task off the main thread (Folia compatible)
+     *
+     * @param plugin The plugin instance
+     * @param task The task to run
+     */
+    public static void runTaskAsync(Plugin plugin, Runnable task) {
+        scheduler.runTaskAsync(plugin, task);
+    }
+
+    /**
+     * Run a repeating task off the main thread (Folia compatible)
+     *
+     * @param plugin The plugin instance
+     * @param task The task to run
+     * @param delay The initial delay in ticks
+     * @param period The period in ticks
+     * @return The created task, or null if it could not be scheduled
+     */
+    public static TaskHandle runTaskTimerAsync(Plugin plugin, Runnable task, long delay, long period) {
+        return scheduler.runTaskTimerAsync(plugin, task, delay, period);
+    }
+
+    /**
+     * Run a task on the thread owning an entity (Folia compatible)
+     *
+     * @param plugin The plugin instance
+     * @param entity The entity
+     * @param task The task to run
+     */
+    public static void runEntityTask(Plugin plugin, Entity entity, Runnable task) {
+        scheduler.runEntityTask(plugin, entity, task);
+    }
+
+    /**
+     * Run a repeating task on the thread owning an entity (Folia compatible)
+     *
+     * @param plugin The plugin instance
+     * @param entity The entity
+     * @param task The task to run
+     * @param delay The initial delay in ticks
+     * @param period The period in ticks
+     * @return The created task, or null if the entity was already removed
+     */
+    public static TaskHandle runEntityTaskTimer(Plugin plugin, Entity entity, Runnable task, long delay, long period) {
+        return scheduler.runEntityTaskTimer(plugin, entity, task, delay, period);
+    }
+
+    /**
+     * Run a task on the thread owning a region (Folia compatible)
+     *
+     * @param plugin The plugin instance
+     * @param world The world of the region
+     * @param chunkX The x coordinate of a chunk in the region
+     * @param chunkZ The z coordinate of a chunk in the region
+     * @param task The task to run
+     */
+    public static void runRegionTask(Plugin plugin, World world, int chunkX, int chunkZ, Runnable task) {
+        scheduler.runRegionTask(plugin, world, chunkX, chunkZ, task);
+    }
+
+    /**
+     * Check if the current thread owns an entity (Folia compatible)
+     *
+     * @param entity The entity
+     * @return true if the entity may be accessed from the current thread
+     */
+    public static boolean isOwnedByCurrentRegion(Entity entity) {
+        return scheduler.isOwnedByCurrentRegion(entity);
+    }
+
     /**
      * Cancel a task (Folia compatible)
      *
-     * @param task The task object
+     * @param task The task handle, may be null
      */
-    public static void cancelTask(Object task) {
-        scheduler.cancelTask(task);
+    public static void cancelTask(TaskHandle task) {
+        if (task != null) {
+            task.cancel();
+        }
     }
 } 
\ No newline at end of file
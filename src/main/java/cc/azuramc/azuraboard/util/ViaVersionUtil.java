@@ -0,0 +1,75 @@
+package cc.azuramc.azuraboard.util;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.lang.reflect.Method;
+import java.util.UUID;
+
+/**
+ * ViaVersion Utility Class for reading the protocol version of connected clients
+ * ViaVersion is accessed through reflection, so the plugin runs without it
+ *
+ * @author an5w1r@163.com
+ */
+public final class ViaVersionUtil {
+
+    /** Protocol version of Minecraft 1.13 */
+    public static final int PROTOCOL_1_13 = 393;
+
+    /** Protocol version of Minecraft 1.16 */
+    public static final int PROTOCOL_1_16 = 735;
+
+    /** The ViaVersion API instance, null if ViaVersion is not available */
+    private static Object api;
+
+    /** ViaAPI#getPlayerVersion(UUID), null if ViaVersion is not available */
+    private static Method getPlayerVersion;
+
+    private static boolean initialized;
+
+    /**
+     * Get the protocol version of a player's client
+     *
+     * @param player The player
+     * @return The protocol version, or -1 if ViaVersion is not available
+     */
+    public static int getProtocolVersion(Player player) {
+        if (!initialized) {
+            initialize();
+        }
+        if (getPlayerVersion == null) {
+            return -1;
+        }
+
+        try {
+            return (int) getPlayerVersion.invoke(api, player.getUniqueId());
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Look up the ViaVersion API once
+     */
+    private static synchronized void initialize() {
+        if (initialized) {
+            return;
+        }
+        initialized = true;
+
+        if (Bukkit.getPluginManager().getPlugin("ViaVersion") == null) {
+            return;
+        }
+
+        try {
+            Class<?> via = Class.forName("com.viaversion.viaversion.api.Via");
+            Class<?> viaApi = Class.forName("com.viaversion.viaversion.api.ViaAPI");
+            api = via.getMethod("getAPI").invoke(null);
+            getPlayerVersion = viaApi.getMethod("getPlayerVersion", UUID.class);
+        } catch (Exception e) {
+            api = null;
+            getPlayerVersion = null;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package cc.azuramc.azuraboard.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link BoundedCache}
+ *
+ * @author an5w1r@163.com
+ */
+class BoundedCacheTest {
+
+    @Test
+    void staysWithinItsMaximumSize() {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>(100);
+        for (int i = 0; i < 10_000; i++) {
+            cache.put(i, i);
+            assertTrue(cache.size() <= 100, () -> "Size " + cache.size());
+        }
+    }
+
+    @Test
+    void keepsRecentlyReadEntries() {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>(100);
+        cache.put(-1, -1);
+
+        for (int i = 0; i < 1_000; i++) {
+            cache.put(i, i);
+            assertEquals(Integer.valueOf(-1), cache.get(-1));
+        }
+        assertNull(cache.get(0));
+    }
+
+    @Test
+    void removesMatchingKeys() {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>(100);
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, i);
+        }
+
+        cache.removeIf(key -> key % 2 == 0);
+        assertEquals(5, cache.size());
+        assertNull(cache.get(2));
+        assertEquals(Integer.valueOf(3), cache.get(3));
+    }
+}
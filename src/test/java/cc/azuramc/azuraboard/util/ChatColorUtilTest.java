@@ -0,0 +1,175 @@
+package cc.azuramc.azuraboard.util;
+
+import org.bukkit.ChatColor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link ChatColorUtil}
+ *
+ * @author an5w1r@163.com
+ */
+class ChatColorUtilTest {
+
+    /** Patterns of the regex based translation color() replaced */
+    private static final Pattern HEX_PATTERN = Pattern.compile("&#([A-Fa-f0-9]{6})");
+    private static final Pattern HEX_PATTERN_2 = Pattern.compile("\\{#([A-Fa-f0-9]{6})}");
+
+    private static final String[] EDGE_CASES = {
+            "", "&", "abc&", "&&", "&&a", "&z", "&A&L&r", "&aGreen &lBold",
+            "&#", "&#12345", "&#12345G", "&#123456", "&#abcdef&", "&&#123456", "&#&a123456",
+            "{#", "{#12345}", "{#123456", "{#123456}", "{#1234567}", "{#&a1234}", "{{#123456}}",
+            "&x&f&f&0&0&0&0X", "&X&F&F&0&0&0&0X", "&#FF5555RGB &#55ff55{#5555FF}text &7end&"
+    };
+
+    private Boolean rgbSupported;
+
+    @BeforeEach
+    void disableMemo() {
+        // Translations depend on RGB support, which the tests switch
+        rgbSupported = VersionUtil.isSupportsRgb;
+        ChatColorUtil.setMemoSize(0);
+    }
+
+    @AfterEach
+    void restore() {
+        VersionUtil.isSupportsRgb = rgbSupported;
+        ChatColorUtil.setMemoSize(2048);
+    }
+
+    @Test
+    void colorMatchesRegexTranslationOnEdgeCases() {
+        for (boolean rgb : new boolean[]{true, false}) {
+            VersionUtil.isSupportsRgb = rgb;
+            for (String message : EDGE_CASES) {
+                assertEquals(regexColor(message), ChatColorUtil.color(message), "RGB " + rgb + ", " + message);
+            }
+        }
+    }
+
+    @Test
+    void colorMatchesRegexTranslationOnRandomInput() {
+        String alphabet = "&&&##{}aAfF0129xXlLrRzg §";
+        Random random = new Random(7);
+
+        for (boolean rgb : new boolean[]{true, false}) {
+            VersionUtil.isSupportsRgb = rgb;
+            for (int run = 0; run < 200_000; run++) {
+                StringBuilder message = new StringBuilder();
+                int length = random.nextInt(24);
+                for (int i = 0; i < length; i++) {
+                    message.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+
+                String text = message.toString();
+                assertEquals(regexColor(text), ChatColorUtil.color(text), () -> "RGB " + rgb + ", " + text);
+            }
+        }
+    }
+
+    @Test
+    void toLegacyDownsamplesRgbColors() {
+        assertEquals("§4X", ChatColorUtil.toLegacy("§x§f§f§0§0§0§0X", 0));
+    }
+
+    @Test
+    void toLegacyDropsCodesThatDoNotChangeTheStyle() {
+        assertEquals("§c§lab", ChatColorUtil.toLegacy("§c§la§c§lb", 0));
+        // A color code resets formats, so the second color has to be kept
+        assertEquals("§c§la§cb", ChatColorUtil.toLegacy("§c§la§cb", 0));
+    }
+
+    @Test
+    void toLegacyDropsTrailingCodes() {
+        assertEquals("ab", ChatColorUtil.toLegacy("ab§c§l", 0));
+        assertEquals("ab", ChatColorUtil.toLegacy("ab§", 0));
+        assertEquals("ab", ChatColorUtil.toLegacy("ab§x§f§f", 0));
+    }
+
+    @Test
+    void toLegacyKeepsFormatOnlyPrefixWithinTheLimit() {
+        assertEquals("§l§oa", ChatColorUtil.toLegacy("§l§oabc", 5));
+        assertEquals("", ChatColorUtil.toLegacy("§l§oabc", 4));
+        assertEquals("", ChatColorUtil.toLegacy("§l§oabc", 3));
+        assertEquals("ab", ChatColorUtil.toLegacy("ab§l§ocd", 5));
+    }
+
+    @Test
+    void toLegacyKeepsColorAndFormatsWithinTheLimit() {
+        assertEquals("ab", ChatColorUtil.toLegacy("ab§c§lcd", 4));
+        assertEquals("ab", ChatColorUtil.toLegacy("ab§c§lcd", 6));
+        assertEquals("ab§c§lc", ChatColorUtil.toLegacy("ab§c§lcd", 7));
+    }
+
+    @Test
+    void toLegacyNeverExceedsTheLimitOrEndsWithACode() {
+        String alphabet = "ab §§§§§xXlLoOrR0c9fz";
+        Random random = new Random(42);
+
+        for (int run = 0; run < 100_000; run++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(60);
+            for (int i = 0; i < length; i++) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+
+            int maxLength = 1 + random.nextInt(32);
+            String legacy = ChatColorUtil.toLegacy(text.toString(), maxLength);
+
+            assertTrue(legacy.length() <= maxLength, () -> "Too long: " + text);
+            assertFalse(endsWithCode(legacy), () -> "Ends with a code: " + text);
+        }
+    }
+
+    /**
+     * Translate colors the way color() did before the single pass translation
+     *
+     * @param message The message
+     * @return The translated message
+     */
+    private static String regexColor(String message) {
+        if (VersionUtil.isSupportsRgb) {
+            message = replaceHex(HEX_PATTERN, message);
+            message = replaceHex(HEX_PATTERN_2, message);
+        }
+        return ChatColor.translateAlternateColorCodes('&', message);
+    }
+
+    private static String replaceHex(Pattern pattern, String message) {
+        Matcher matcher = pattern.matcher(message);
+        StringBuffer buffer = new StringBuffer();
+
+        while (matcher.find()) {
+            StringBuilder replacement = new StringBuilder("§x");
+            for (char c : matcher.group(1).toCharArray()) {
+                replacement.append('§').append(c);
+            }
+            matcher.appendReplacement(buffer, replacement.toString());
+        }
+        matcher.appendTail(buffer);
+
+        return buffer.toString();
+    }
+
+    /**
+     * Check if a legacy text ends with a color or format code
+     * Legacy text has no visible '§', every one of them starts a code
+     *
+     * @param text The text
+     * @return true if the last character is '§' or the code following one
+     */
+    private static boolean endsWithCode(String text) {
+        int length = text.length();
+        return length > 0 && text.charAt(length - 1) == '§'
+                || length > 1 && text.charAt(length - 2) == '§';
+    }
+}